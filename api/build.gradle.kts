@@ -44,6 +44,7 @@ dependencies {
 mappingCompression {
     mappingDirectory = rootDir.resolve("mappings")
     outDirectory = project.layout.buildDirectory.dir("mappings/generated/assets/mappings")
+    snapshotDirectory = project.layout.buildDirectory.dir("mappings/snapshot/assets/mappings")
 
     with<JsonToNbtStrategy> {
         compress("block/legacy_block_mappings.json")
@@ -130,8 +131,9 @@ tasks {
     }
 
     processResources {
-        dependsOn(compressMappings)
+        dependsOn(compressMappings, snapshotMappings)
         from(project.layout.buildDirectory.dir("mappings/generated").get())
+        from(project.layout.buildDirectory.dir("mappings/snapshot").get())
     }
 
     generateVersionsFile {
@@ -20,6 +20,8 @@ package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -35,6 +37,10 @@ import java.util.logging.Level;
  * its event listeners during any modifications. In other words, it assumes that reads (events fired)
  * greatly outnumber writes (listeners modifications). If your case requires frequent listener modifications,
  * open a pull request on GitHub and describe your case.
+ * <p>
+ * Listeners which were created with a set of packet types (see {@link PacketListenerCommon#getPacketTypes()})
+ * are only invoked for packets of those types. For this, a dispatch table is built for every packet side and
+ * connection state, indexed by the ordinal of the packet type.
  *
  * @author retrooper
  * @author ShadowOfHeaven (optimization)
@@ -43,6 +49,32 @@ import java.util.logging.Level;
 
 public class EventManager {
 
+    private static final PacketListenerCommon[] NO_LISTENERS = new PacketListenerCommon[0];
+    private static final Class<?>[] DISPATCH_CLASSES = {
+            PacketType.Play.Server.class,
+            PacketType.Play.Client.class,
+            PacketType.Configuration.Server.class,
+            PacketType.Configuration.Client.class,
+            PacketType.Login.Server.class,
+            PacketType.Login.Client.class,
+            PacketType.Status.Server.class,
+            PacketType.Status.Client.class,
+            PacketType.Handshaking.Server.class,
+            PacketType.Handshaking.Client.class,
+    };
+    //Resolves the dispatch index of a packet type enum once per class, -1 for anything else
+    private static final ClassValue<Integer> DISPATCH_INDEX = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (int i = 0; i < DISPATCH_CLASSES.length; i++) {
+                if (DISPATCH_CLASSES[i] == type) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    };
+
     //Using a ConcurrentHashMap is faster and more secure here, compared to Collections.synchronizedMap(new EnumMap<>(PacketListenerPriority.class))
     //This is mainly due to:
     //1. On each modification Collections.synchronizedMap synchronizes the whole Map object, while ConcurrentHashMap only it's internal, currently modified Node
@@ -51,7 +83,11 @@ public class EventManager {
     private final Map<PacketListenerPriority, Set<PacketListenerCommon>> listenersMap = new ConcurrentHashMap<>();
     //Since reads greatly outnumber writes, create an array for the best possible iteration time
     //Updated as a whole on writes, no index modifications are allowed
-    private volatile PacketListenerCommon[] listeners = new PacketListenerCommon[0];
+    private volatile PacketListenerCommon[] listeners = NO_LISTENERS;
+    //Listeners without packet type filter, the only ones receiving events without a packet type
+    private volatile PacketListenerCommon[] unfilteredListeners = NO_LISTENERS;
+    //Copy-on-write dispatch table, indexed by [dispatch index][packet type ordinal]
+    private volatile PacketListenerCommon[][][] dispatchTable = buildDispatchTable(NO_LISTENERS);
 
 
     /**
@@ -79,6 +115,8 @@ public class EventManager {
      * @param postCallListenerAction The action to be ran after all the listeners have finished processing
      */
     public void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction) {
+        PacketListenerCommon[] listeners = event instanceof ProtocolPacketEvent
+                ? this.getListeners(((ProtocolPacketEvent) event).getPacketType()) : this.listeners;
         for (PacketListenerCommon listener : listeners) {
             try {
                 event.call(listener);
@@ -98,6 +136,17 @@ public class EventManager {
         }
     }
 
+    /**
+     * Whether any registered listener is interested in packets of the specified type.
+     * If this returns false, calling a packet event of this type has no effect.
+     *
+     * @param packetType {@link PacketTypeCommon}
+     * @return true if at least one listener would receive packets of this type
+     */
+    public boolean hasListeners(@Nullable PacketTypeCommon packetType) {
+        return this.getListeners(packetType).length != 0;
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -109,6 +158,19 @@ public class EventManager {
         return registerListener(packetListenerAbstract);
     }
 
+    /**
+     * Register the dynamic packet event listener, which only receives packets of the specified types.
+     *
+     * @param listener    {@link PacketListenerCommon}
+     * @param priority    {@link PacketListenerPriority}
+     * @param packetTypes the packet types this listener is interested in
+     */
+    public PacketListenerCommon registerListener(PacketListener listener, PacketListenerPriority priority,
+                                                 PacketTypeCommon... packetTypes) {
+        PacketListenerCommon packetListenerAbstract = listener.asAbstract(priority, packetTypes);
+        return registerListener(packetListenerAbstract);
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -152,8 +214,57 @@ public class EventManager {
     public void unregisterAllListeners() {
         this.listenersMap.clear();
         synchronized (this) {//like booky10 said, the synchronization is necessary here
-            this.listeners = new PacketListenerCommon[0];
+            this.listeners = NO_LISTENERS;
+            this.unfilteredListeners = NO_LISTENERS;
+            this.dispatchTable = buildDispatchTable(NO_LISTENERS);
+        }
+    }
+
+    private PacketListenerCommon[] getListeners(@Nullable PacketTypeCommon packetType) {
+        if (packetType == null) {
+            return this.unfilteredListeners;
+        }
+        int dispatchIndex = getDispatchIndex(packetType);
+        if (dispatchIndex == -1) {
+            //Packet types which are not part of the dispatch table, check every listener
+            return filterListeners(packetType);
+        }
+        return this.dispatchTable[dispatchIndex][((Enum<?>) packetType).ordinal()];
+    }
+
+    private PacketListenerCommon[] filterListeners(PacketTypeCommon packetType) {
+        PacketListenerCommon[] listeners = this.listeners;
+        List<PacketListenerCommon> list = new ArrayList<>(listeners.length);
+        for (PacketListenerCommon listener : listeners) {
+            if (listener.isListeningTo(packetType)) list.add(listener);
+        }
+        return list.isEmpty() ? NO_LISTENERS : list.toArray(new PacketListenerCommon[0]);
+    }
+
+    private static int getDispatchIndex(PacketTypeCommon packetType) {
+        //Enum constants with a body are subclasses, so key on the enum class itself
+        Class<?> packetTypeClass = packetType instanceof Enum
+                ? ((Enum<?>) packetType).getDeclaringClass() : packetType.getClass();
+        return DISPATCH_INDEX.get(packetTypeClass);
+    }
+
+    private static PacketListenerCommon[][][] buildDispatchTable(PacketListenerCommon[] listeners) {
+        PacketListenerCommon[][][] table = new PacketListenerCommon[DISPATCH_CLASSES.length][][];
+        List<PacketListenerCommon> list = new ArrayList<>(listeners.length);
+        for (int i = 0; i < DISPATCH_CLASSES.length; i++) {
+            Object[] packetTypes = DISPATCH_CLASSES[i].getEnumConstants();
+            PacketListenerCommon[][] listenersByType = new PacketListenerCommon[packetTypes.length][];
+            for (int ordinal = 0; ordinal < packetTypes.length; ordinal++) {
+                PacketTypeCommon packetType = (PacketTypeCommon) packetTypes[ordinal];
+                for (PacketListenerCommon listener : listeners) {
+                    if (listener.isListeningTo(packetType)) list.add(listener);
+                }
+                listenersByType[ordinal] = list.isEmpty() ? NO_LISTENERS : list.toArray(new PacketListenerCommon[0]);
+                list.clear();
+            }
+            table[i] = listenersByType;
         }
+        return table;
     }
 
     //Needs to be synchronized in order to avoid race conditions (for example where the 'listeners' variable
@@ -166,7 +277,11 @@ public class EventManager {
                 Set<PacketListenerCommon> set = this.listenersMap.get(priority);
                 if (set != null) list.addAll(set);
             }
-            this.listeners = list.toArray(new PacketListenerCommon[0]);
+            PacketListenerCommon[] listeners = list.toArray(new PacketListenerCommon[0]);
+            list.removeIf(listener -> listener.getPacketTypes() != null);
+            this.unfilteredListeners = list.toArray(new PacketListenerCommon[0]);
+            this.dispatchTable = buildDispatchTable(listeners);
+            this.listeners = listeners;
         }
     }
 
@@ -18,9 +18,15 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+
 public interface PacketListener {
     default PacketListenerAbstract asAbstract(PacketListenerPriority priority) {
-        return new PacketListenerAbstract(priority) {
+        return asAbstract(priority, new PacketTypeCommon[0]);
+    }
+
+    default PacketListenerAbstract asAbstract(PacketListenerPriority priority, PacketTypeCommon... packetTypes) {
+        return new PacketListenerAbstract(priority, packetTypes) {
             @Override
             public void onUserConnect(UserConnectEvent event) {
                 PacketListener.this.onUserConnect(event);
@@ -18,9 +18,12 @@
 
 package com.github.retrooper.packetevents.event;
 
-import java.lang.reflect.Method;
-import java.util.List;
-import java.util.Map;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Abstract packet listener.
@@ -30,19 +33,55 @@ import java.util.Map;
  */
 public abstract class PacketListenerCommon {
     private final PacketListenerPriority priority;
+    private final @Nullable Set<PacketTypeCommon> packetTypes;
 
     public PacketListenerCommon(PacketListenerPriority priority) {
         this.priority = priority;
+        this.packetTypes = null;
+    }
+
+    /**
+     * Creates a listener which only receives packet events of the specified packet types.
+     * Packets of other types will never reach {@link #onPacketReceive(PacketReceiveEvent)}
+     * or {@link #onPacketSend(PacketSendEvent)} of this listener.
+     * Passing no packet types makes this listener receive all packets.
+     *
+     * @param priority    the priority of this listener
+     * @param packetTypes the packet types this listener is interested in
+     */
+    public PacketListenerCommon(PacketListenerPriority priority, PacketTypeCommon... packetTypes) {
+        this.priority = priority;
+        if (packetTypes.length == 0) {
+            this.packetTypes = null;
+        } else {
+            Set<PacketTypeCommon> types = new HashSet<>(packetTypes.length);
+            Collections.addAll(types, packetTypes);
+            this.packetTypes = Collections.unmodifiableSet(types);
+        }
     }
 
     public PacketListenerCommon() {
         this.priority = PacketListenerPriority.NORMAL;
+        this.packetTypes = null;
     }
 
     public PacketListenerPriority getPriority() {
         return priority;
     }
 
+    /**
+     * The packet types this listener has been registered for.
+     *
+     * @return the packet types, or null if this listener receives all packets
+     */
+    public @Nullable Set<PacketTypeCommon> getPacketTypes() {
+        return packetTypes;
+    }
+
+    public boolean isListeningTo(PacketTypeCommon packetType) {
+        return packetTypes == null || packetTypes.contains(packetType);
+    }
+
     public void onUserConnect(UserConnectEvent event) {
     }
 
@@ -31,6 +31,11 @@ public class PacketReceiveEvent extends ProtocolPacketEvent {
         super(PacketSide.CLIENT, channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    protected PacketReceiveEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                 boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(PacketSide.CLIENT, channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketReceiveEvent(int packetID, PacketTypeCommon packetType,
                                  ServerVersion serverVersion,
                                  Object channel, User user, Object player,
@@ -37,6 +37,11 @@ public class PacketSendEvent extends ProtocolPacketEvent {
         super(PacketSide.SERVER, channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    protected PacketSendEvent(Object channel, User user, Object player, Object rawByteBuf,
+                              boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(PacketSide.SERVER, channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketSendEvent(int packetID, PacketTypeCommon packetType,
                               ServerVersion serverVersion,
                               Object channel, User user,
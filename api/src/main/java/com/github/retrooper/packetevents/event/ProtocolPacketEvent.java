@@ -58,6 +58,17 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
     public ProtocolPacketEvent(PacketSide packetSide, Object channel,
                                User user, Object player, Object byteBuf,
                                boolean autoProtocolTranslation) throws PacketProcessException {
+        this(packetSide, channel, user, player, byteBuf, autoProtocolTranslation, null);
+    }
+
+    /**
+     * Creates the event with a packet type which was already resolved from the packet ID in the buffer,
+     * so it isn't looked up again. If it is null, the packet type is resolved like usual.
+     */
+    public ProtocolPacketEvent(PacketSide packetSide, Object channel,
+                               User user, Object player, Object byteBuf,
+                               boolean autoProtocolTranslation,
+                               @Nullable PacketTypeCommon packetType) throws PacketProcessException {
         this.channel = channel;
         this.user = user;
         this.player = player;
@@ -78,8 +89,13 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         } catch (Exception e) {
             throw new PacketProcessException("Failed to read the Packet ID of a packet. (Size: " + size + ")");
         }
-        ClientVersion version = serverVersion.toClientVersion();
         ConnectionState state = packetSide == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+        if (packetType != null) {
+            this.packetType = packetType;
+            this.connectionState = state;
+            return;
+        }
+        ClientVersion version = serverVersion.toClientVersion();
         this.packetType = PacketType.getById(packetSide, state,
                 version, packetID);
         if (this.packetType == null) {
@@ -209,6 +225,18 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         this.lastUsedWrapper = lastUsedWrapper;
     }
 
+    /**
+     * Decodes this packet into an existing wrapper instead of allocating a new one.
+     * If another listener already decoded this packet, its result is copied rather than read again.
+     *
+     * @param wrapper a wrapper matching the packet type, usually kept per thread and reused
+     * @return the given wrapper
+     */
+    public <T extends PacketWrapper<T>> T readInto(T wrapper) {
+        wrapper.readFrom(this);
+        return wrapper;
+    }
+
     public List<Runnable> getPostTasks() {
         if (postTasks == null) {
             postTasks = new ArrayList<>();
@@ -34,6 +34,11 @@ public class PacketConfigReceiveEvent extends PacketReceiveEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketConfigReceiveEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                    boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketConfigReceiveEvent(int packetId, PacketTypeCommon packetType,
                                        ServerVersion serverVersion,
                                        Object channel,
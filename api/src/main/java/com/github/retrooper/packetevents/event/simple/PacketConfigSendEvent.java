@@ -34,6 +34,13 @@ public class PacketConfigSendEvent extends PacketSendEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketConfigSendEvent(Object channel, User user,
+                                 Object player, Object rawByteBuf,
+                                 boolean autoProtocolTranslation,
+                                 PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketConfigSendEvent(int packetId, PacketTypeCommon packetType,
                                     ServerVersion serverVersion,
                                     Object channel,
@@ -33,6 +33,13 @@ public class PacketHandshakeReceiveEvent extends PacketReceiveEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketHandshakeReceiveEvent(Object channel, User user,
+                                       Object player, Object rawByteBuf,
+                                       boolean autoProtocolTranslation,
+                                       PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketHandshakeReceiveEvent(int packetId, PacketTypeCommon packetType,
                                           ServerVersion serverVersion,
                                           Object channel,
@@ -15,6 +15,13 @@ public class PacketHandshakeSendEvent extends PacketSendEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketHandshakeSendEvent(Object channel, User user,
+                                    Object player, Object rawByteBuf,
+                                    boolean autoProtocolTranslation,
+                                    PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketHandshakeSendEvent(int packetId, PacketTypeCommon packetType,
                                           ServerVersion serverVersion,
                                           Object channel,
@@ -33,6 +33,11 @@ public class PacketLoginReceiveEvent extends PacketReceiveEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketLoginReceiveEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                   boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketLoginReceiveEvent(int packetId, PacketTypeCommon packetType,
                                       ServerVersion serverVersion,
                                       Object channel,
@@ -32,6 +32,11 @@ public class PacketLoginSendEvent extends PacketSendEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketLoginSendEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketLoginSendEvent(int packetId, PacketTypeCommon packetType,
                                    ServerVersion serverVersion,
                                    Object channel,
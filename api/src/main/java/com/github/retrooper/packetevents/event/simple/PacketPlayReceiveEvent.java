@@ -33,6 +33,11 @@ public class PacketPlayReceiveEvent extends PacketReceiveEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketPlayReceiveEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                  boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketPlayReceiveEvent(int packetId, PacketTypeCommon packetType,
                                      ServerVersion serverVersion,
                                      Object channel,
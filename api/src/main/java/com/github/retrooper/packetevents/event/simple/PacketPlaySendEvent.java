@@ -33,6 +33,11 @@ public class PacketPlaySendEvent extends PacketSendEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketPlaySendEvent(Object channel, User user, Object player, Object rawByteBuf,
+                               boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketPlaySendEvent(int packetId, PacketTypeCommon packetType,
                                   ServerVersion serverVersion,
                                   Object channel,
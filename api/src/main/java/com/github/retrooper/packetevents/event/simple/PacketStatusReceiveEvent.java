@@ -33,6 +33,11 @@ public class PacketStatusReceiveEvent extends PacketReceiveEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketStatusReceiveEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                    boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketStatusReceiveEvent(int packetId, PacketTypeCommon packetType,
                                   ServerVersion serverVersion,
                                   Object channel,
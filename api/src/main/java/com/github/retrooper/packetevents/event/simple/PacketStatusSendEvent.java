@@ -32,6 +32,11 @@ public class PacketStatusSendEvent extends PacketSendEvent {
         super(channel, user, player, rawByteBuf, autoProtocolTranslation);
     }
 
+    public PacketStatusSendEvent(Object channel, User user, Object player, Object rawByteBuf,
+                                 boolean autoProtocolTranslation, PacketTypeCommon packetType) throws PacketProcessException {
+        super(channel, user, player, rawByteBuf, autoProtocolTranslation, packetType);
+    }
+
     protected PacketStatusSendEvent(int packetId, PacketTypeCommon packetType,
                                     ServerVersion serverVersion,
                                     Object channel,
@@ -0,0 +1,155 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager.protocol;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Collects outgoing packets for one channel, so they are written and flushed together.
+ * Packets are encoded as soon as they are added, on the calling thread. Once the batch is complete,
+ * all packets are written in one go on the event loop of the channel, with a single event loop task
+ * if the batch was built on another thread. The channel is flushed at the end, or earlier whenever
+ * the flush thresholds from the {@link PacketEventsSettings} are reached.
+ *
+ * @see ProtocolManager#batch(Object, java.util.function.Consumer)
+ */
+public final class PacketBatch {
+
+    private final Object channel;
+    private final List<Object> buffers = new ArrayList<>();
+    private final BitSet silent = new BitSet();
+
+    PacketBatch(Object channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Adds a packet to this batch, which passes through all handlers like {@link ProtocolManager#sendPacket}.
+     *
+     * @param wrapper the packet
+     * @return this batch
+     */
+    public PacketBatch write(PacketWrapper<?> wrapper) {
+        add(wrapper, false);
+        return this;
+    }
+
+    /**
+     * Adds a packet to this batch, which skips our listeners like {@link ProtocolManager#sendPacketSilently}.
+     *
+     * @param wrapper the packet
+     * @return this batch
+     */
+    public PacketBatch writeSilently(PacketWrapper<?> wrapper) {
+        add(wrapper, true);
+        return this;
+    }
+
+    /**
+     * @return the amount of encoded packets in this batch
+     */
+    public int size() {
+        return buffers.size();
+    }
+
+    private void add(PacketWrapper<?> wrapper, boolean silently) {
+        Object[] transformed = PacketEvents.getAPI().getProtocolManager().transformWrappers(wrapper, channel, true);
+        for (Object buffer : transformed) {
+            if (silently) {
+                silent.set(buffers.size());
+            }
+            buffers.add(buffer);
+        }
+    }
+
+    void submit() {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        if (ChannelHelper.isInEventLoop(channel)) {
+            drain();
+            return;
+        }
+        try {
+            ChannelHelper.runInEventLoop(channel, this::drain);
+        } catch (RejectedExecutionException exception) {
+            // The event loop has shut down, so the packets will never be written
+            release();
+            throw exception;
+        }
+    }
+
+    private void drain() {
+        ProtocolManager protocolManager = PacketEvents.getAPI().getProtocolManager();
+        PacketEventsSettings settings = PacketEvents.getAPI().getSettings();
+        int packetThreshold = settings.getBatchFlushPacketThreshold();
+        int byteThreshold = settings.getBatchFlushByteThreshold();
+        int pendingPackets = 0;
+        int pendingBytes = 0;
+        // index of the next packet to be handed over to the channel
+        int next = 0;
+        try {
+            while (next < buffers.size()) {
+                int i = next++;
+                Object buffer = buffers.get(i);
+                // Read the size first, the buffer may be released once it was written
+                pendingBytes += ByteBufHelper.readableBytes(buffer);
+                pendingPackets++;
+                if (silent.get(i)) {
+                    protocolManager.writePacketSilently(channel, buffer);
+                } else {
+                    protocolManager.writePacket(channel, buffer);
+                }
+                if ((packetThreshold > 0 && pendingPackets >= packetThreshold)
+                        || (byteThreshold > 0 && pendingBytes >= byteThreshold)) {
+                    ChannelHelper.flush(channel);
+                    pendingPackets = 0;
+                    pendingBytes = 0;
+                }
+            }
+            if (pendingPackets > 0) {
+                ChannelHelper.flush(channel);
+            }
+        } finally {
+            // If a write failed, the packets after it are never handed over and have to be released here
+            for (int i = next; i < buffers.size(); i++) {
+                ByteBufHelper.release(buffers.get(i));
+            }
+            buffers.clear();
+            silent.clear();
+        }
+    }
+
+    void release() {
+        for (Object buffer : buffers) {
+            ByteBufHelper.release(buffer);
+        }
+        buffers.clear();
+        silent.clear();
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager.protocol;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Collects outgoing packets for one channel from any thread, and writes them on the event loop of the channel.
+ * Queued packets are encoded and written together, with a single flush, when the queue is drained.
+ * The queue is drained once it holds as many packets as the drain threshold in the {@link PacketEventsSettings},
+ * and on every tick if the queue is {@link #isTickAligned() tick aligned}. Otherwise, the first packet added to an empty queue schedules
+ * a drain, so packets added in the meantime share its event loop task.
+ * <p>
+ * While the channel is not writable, new packets are handled according to the configured {@link BackPressure}.
+ *
+ * @see com.github.retrooper.packetevents.protocol.player.User#getSendQueue()
+ */
+public final class PacketSendQueue {
+
+    public enum BackPressure {
+        /**
+         * Discards packets queued while the channel is not writable.
+         */
+        DROP,
+        /**
+         * Replaces a pending packet with a newer packet of the same coalescing key
+         * while the channel is not writable. Packets without a key are queued as usual.
+         */
+        COALESCE,
+        /**
+         * Waits until the channel is writable again, at most for the block timeout.
+         * Never blocks the event loop itself.
+         */
+        BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    // set by platforms which flush all send queues on every tick
+    private static volatile boolean tickHook;
+
+    private final Object channel;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Object, Entry> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final LongAdder droppedPackets = new LongAdder();
+    private final LongAdder coalescedPackets = new LongAdder();
+
+    public PacketSendQueue(Object channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Queues a packet, which passes through all handlers like {@link ProtocolManager#sendPacket}.
+     *
+     * @param wrapper the packet
+     * @return false if the packet was dropped
+     */
+    public boolean enqueue(PacketWrapper<?> wrapper) {
+        return enqueue(wrapper, null);
+    }
+
+    /**
+     * Queues a packet, which may replace a pending packet with the same coalescing key
+     * while the channel is not writable, if the back pressure mode is {@link BackPressure#COALESCE}.
+     *
+     * @param wrapper       the packet
+     * @param coalescingKey identifies packets which make older ones obsolete, such as an entity id
+     * @return false if the packet was dropped
+     */
+    public boolean enqueue(PacketWrapper<?> wrapper, @Nullable Object coalescingKey) {
+        PacketEventsSettings settings = PacketEvents.getAPI().getSettings();
+        if (!ChannelHelper.isWritable(channel)) {
+            switch (settings.getSendQueueBackPressure()) {
+                case DROP:
+                    droppedPackets.increment();
+                    return false;
+                case COALESCE:
+                    if (coalescingKey != null && coalesce(coalescingKey, wrapper)) {
+                        return true;
+                    }
+                    break;
+                case BLOCK:
+                    awaitWritable(settings.getSendQueueBlockTimeout());
+                    break;
+            }
+        }
+
+        Entry entry = new Entry(wrapper, coalescingKey);
+        if (coalescingKey != null) {
+            pending.put(coalescingKey, entry);
+        }
+        queue.add(entry);
+        int size = depth.incrementAndGet();
+        maxDepth.accumulateAndGet(size, Math::max);
+        if (size >= settings.getSendQueueDrainThreshold()
+                || (size == 1 && !isTickAligned())) {
+            scheduleDrain();
+        }
+        return true;
+    }
+
+    /**
+     * Drains the queue on the event loop, if it holds any packets.
+     * This is called on every tick for tick aligned queues.
+     */
+    public void flush() {
+        if (depth.get() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Queues only wait for the next tick if the platform flushes them on every tick,
+     * otherwise the tick alignment setting is ignored.
+     *
+     * @return true if queues are drained on every tick instead of as soon as the first packet is queued
+     */
+    public static boolean isTickAligned() {
+        return tickHook && PacketEvents.getAPI().getSettings().isSendQueueTickAligned();
+    }
+
+    /**
+     * Called by platforms which call {@link ProtocolManager#flushSendQueues()} on every tick.
+     *
+     * @param tickHook whether the send queues are flushed on every tick
+     */
+    @ApiStatus.Internal
+    public static void setTickHook(boolean tickHook) {
+        PacketSendQueue.tickHook = tickHook;
+    }
+
+    /**
+     * @return the amount of packets waiting to be written
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return the highest amount of packets that waited to be written at once
+     */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * @return the amount of packets dropped because the channel was not writable
+     */
+    public long getDroppedPackets() {
+        return droppedPackets.sum();
+    }
+
+    /**
+     * @return the amount of packets replaced by newer packets with the same coalescing key
+     */
+    public long getCoalescedPackets() {
+        return coalescedPackets.sum();
+    }
+
+    private boolean coalesce(Object coalescingKey, PacketWrapper<?> wrapper) {
+        Entry entry = pending.get(coalescingKey);
+        if (entry == null) {
+            return false;
+        }
+        PacketWrapper<?> previous = entry.wrapper.get();
+        // The entry may be drained concurrently, in which case the packet is queued again
+        if (previous != null && entry.wrapper.compareAndSet(previous, wrapper)) {
+            coalescedPackets.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private void awaitWritable(long timeoutMillis) {
+        // Blocking the event loop would keep the channel from ever becoming writable
+        if (ChannelHelper.isInEventLoop(channel)) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!ChannelHelper.isWritable(channel) && ChannelHelper.isOpen(channel)
+                && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (ChannelHelper.isInEventLoop(channel)) {
+            drain();
+            return;
+        }
+        try {
+            ChannelHelper.runInEventLoop(channel, this::drain);
+        } catch (RejectedExecutionException exception) {
+            // The event loop has shut down, the channel is closed and the packets are discarded
+            drainScheduled.set(false);
+            clear();
+        }
+    }
+
+    private void drain() {
+        // Packets added from now on need another drain
+        drainScheduled.set(false);
+        if (!ChannelHelper.isOpen(channel)) {
+            clear();
+            return;
+        }
+        ProtocolManager protocolManager = PacketEvents.getAPI().getProtocolManager();
+        // Only drain what is queued right now, so producers can't keep the event loop busy
+        int remaining = depth.get();
+        int written = 0;
+        Entry entry;
+        try {
+            while (remaining-- > 0 && (entry = poll()) != null) {
+                // The entry is polled already, so a packet failing to encode is dropped instead of stalling the queue
+                PacketWrapper<?> wrapper = entry.wrapper.getAndSet(null);
+                Object[] buffers = protocolManager.transformWrappers(wrapper, channel, true);
+                int i = 0;
+                try {
+                    for (; i < buffers.length; i++) {
+                        protocolManager.writePacket(channel, buffers[i]);
+                        written++;
+                    }
+                } finally {
+                    // Release the buffers after a failed write, they are never handed over
+                    for (int j = i + 1; j < buffers.length; j++) {
+                        ByteBufHelper.release(buffers[j]);
+                    }
+                }
+            }
+        } finally {
+            if (written > 0) {
+                ChannelHelper.flush(channel);
+            }
+            // Packets added during the drain did not schedule one themselves, neither did those left
+            // behind by a failed drain. Tick aligned queues pick them up on the next tick instead
+            if (depth.get() > 0 && !isTickAligned() && drainScheduled.compareAndSet(false, true)) {
+                ChannelHelper.runInEventLoop(channel, this::drain);
+            }
+        }
+    }
+
+    private @Nullable Entry poll() {
+        Entry entry = queue.poll();
+        if (entry != null) {
+            depth.decrementAndGet();
+            if (entry.coalescingKey != null) {
+                pending.remove(entry.coalescingKey, entry);
+            }
+        }
+        return entry;
+    }
+
+    private void clear() {
+        while (poll() != null) {
+            // Discard all queued packets, nothing has been encoded yet
+        }
+    }
+
+    private static final class Entry {
+
+        private final AtomicReference<PacketWrapper<?>> wrapper;
+        private final @Nullable Object coalescingKey;
+
+        private Entry(PacketWrapper<?> wrapper, @Nullable Object coalescingKey) {
+            this.wrapper = new AtomicReference<>(wrapper);
+            this.coalescingKey = coalescingKey;
+        }
+    }
+}
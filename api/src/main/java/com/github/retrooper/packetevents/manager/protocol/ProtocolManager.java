@@ -19,6 +19,8 @@
 package com.github.retrooper.packetevents.manager.protocol;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
@@ -27,10 +29,13 @@ import com.github.retrooper.packetevents.util.PacketTransformationUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public interface ProtocolManager {
     Map<UUID, Object> CHANNELS = new ConcurrentHashMap<>();
@@ -135,6 +140,99 @@ public interface ProtocolManager {
         writePacketsSilently(channel, transformed);
     }
 
+    /**
+     * Writes several packets to a channel and flushes them together, instead of flushing after every packet.
+     * The packets are encoded while the writer runs, and then written with a single event loop task
+     * if this is called outside of the event loop of the channel.
+     * <pre>{@code
+     * protocolManager.batch(channel, batch -> {
+     *     batch.write(spawnEntity);
+     *     batch.write(entityMetadata);
+     * });
+     * }</pre>
+     *
+     * @param channel the channel to write to
+     * @param writer  adds the packets to the batch
+     */
+    default void batch(Object channel, Consumer<PacketBatch> writer) {
+        PacketBatch batch = new PacketBatch(channel);
+        try {
+            writer.accept(batch);
+        } catch (RuntimeException exception) {
+            batch.release();
+            throw exception;
+        }
+        batch.submit();
+    }
+
+    /**
+     * Drains the send queues of all users, called on every tick if send queues are tick aligned.
+     *
+     * @see PacketSendQueue
+     */
+    default void flushSendQueues() {
+        for (User user : getUsers()) {
+            if (user.getChannel() != null) {
+                user.flushSendQueue();
+            }
+        }
+    }
+
+    /**
+     * Sends a packet to several users, encoding it once for all users who need the same bytes
+     * instead of once per user. On servers this is a single encode, on proxies one per client version.
+     * Each user still receives their own copy of the encoded packet, as listeners and other
+     * handlers may rewrite outgoing buffers in place.
+     *
+     * @param users   the users to send the packet to
+     * @param wrapper the packet
+     */
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, false);
+    }
+
+    default void broadcastPacketSilently(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, true);
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper, boolean silently) {
+        // proxies encode packets for the version and state of each user
+        boolean proxy = PacketEvents.getAPI().getInjector().isProxy();
+        ServerVersion serverVersion = wrapper.getServerVersion();
+        Map<Object, Object[]> encoded = new HashMap<>();
+        try {
+            for (User user : users) {
+                Object channel = user.getChannel();
+                if (channel == null) {
+                    continue;
+                }
+                Object key = proxy ? Arrays.asList(user.getClientVersion(), user.getEncoderState()) : serverVersion;
+                Object[] buffers = encoded.get(key);
+                if (buffers == null) {
+                    buffers = transformWrappers(wrapper, channel, true);
+                    // preparing a packet on proxies changes the version of the wrapper to the one of the user
+                    wrapper.setServerVersion(serverVersion);
+                    encoded.put(key, buffers);
+                }
+                for (Object buffer : buffers) {
+                    Object copy = ByteBufHelper.copy(buffer);
+                    if (silently) {
+                        sendPacketSilently(channel, copy);
+                    } else {
+                        sendPacket(channel, copy);
+                    }
+                }
+            }
+        } finally {
+            for (Object[] buffers : encoded.values()) {
+                for (Object buffer : buffers) {
+                    ByteBufHelper.release(buffer);
+                }
+            }
+        }
+    }
+
     default void receivePacket(Object channel, PacketWrapper<?> wrapper) {
         Object[] transformed = transformWrappers(wrapper, channel, false);
         receivePackets(channel, transformed);
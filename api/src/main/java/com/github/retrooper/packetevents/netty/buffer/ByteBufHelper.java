@@ -20,6 +20,7 @@ package com.github.retrooper.packetevents.netty.buffer;
 
 import com.github.retrooper.packetevents.PacketEvents;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 public class ByteBufHelper {
@@ -155,6 +156,10 @@ public class ByteBufHelper {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().getUnsignedByte(buffer, index);
     }
 
+    public static Object setByte(Object buffer, int index, int value) {
+        return PacketEvents.getAPI().getNettyManager().getByteBufOperator().setByte(buffer, index, value);
+    }
+
     public static boolean isReadable(Object buffer) {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().isReadable(buffer);
     }
@@ -199,6 +204,10 @@ public class ByteBufHelper {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().writeBytes(buffer, src);
     }
 
+    public static ByteBuffer nioBuffer(Object buffer, int index, int length) {
+        return PacketEvents.getAPI().getNettyManager().getByteBufOperator().nioBuffer(buffer, index, length);
+    }
+
     public static void readBytes(Object buffer, byte[] bytes) {
         PacketEvents.getAPI().getNettyManager().getByteBufOperator().readBytes(buffer, bytes);
     }
@@ -254,6 +263,27 @@ public class ByteBufHelper {
         return value;
     }
 
+    /**
+     * Reads a VarInt at the specified index without modifying the reader index of the buffer.
+     *
+     * @return the VarInt, or -1 if the buffer doesn't contain a valid VarInt at this index
+     */
+    public static int getVarInt(Object buffer, int index) {
+        int writerIndex = writerIndex(buffer);
+        int value = 0;
+        int length = 0;
+        short currentByte;
+        do {
+            if (index >= writerIndex || length >= 5) {
+                return -1;
+            }
+            currentByte = getUnsignedByte(buffer, index++);
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
     public static void writeVarInt(Object buffer, int value) {
         while (true) {
             if ((value & ~0x7F) == 0) {
@@ -18,6 +18,7 @@
 
 package com.github.retrooper.packetevents.netty.buffer;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 public interface ByteBufOperator {
@@ -115,4 +116,17 @@ public interface ByteBufOperator {
     default void writeBoolean(Object buffer, boolean value) {
         writeByte(buffer, value ? 1 : 0);
     }
+
+    default Object setByte(Object buffer, int index, int value) {
+        int writerIndex = writerIndex(buffer);
+        writerIndex(buffer, index);
+        writeByte(buffer, value);
+        return writerIndex(buffer, writerIndex);
+    }
+
+    default ByteBuffer nioBuffer(Object buffer, int index, int length) {
+        byte[] bytes = new byte[length];
+        getBytes(buffer, index, bytes);
+        return ByteBuffer.wrap(bytes);
+    }
 }
@@ -100,4 +100,12 @@ public class ChannelHelper {
     public static void runInEventLoop(Object channel, Runnable runnable) {
         PacketEvents.getAPI().getNettyManager().getChannelOperator().runInEventLoop(channel, runnable);
     }
+
+    public static boolean isInEventLoop(Object channel) {
+        return PacketEvents.getAPI().getNettyManager().getChannelOperator().isInEventLoop(channel);
+    }
+
+    public static boolean isWritable(Object channel) {
+        return PacketEvents.getAPI().getNettyManager().getChannelOperator().isWritable(channel);
+    }
 }
@@ -56,5 +56,15 @@ public interface ChannelOperator {
 
     void runInEventLoop(Object channel, Runnable runnable);
 
+    // Operators which can't tell are treated as outside of the event loop, so work is always scheduled on it
+    default boolean isInEventLoop(Object channel) {
+        return false;
+    }
+
+    // Operators which can't tell never hold packets back
+    default boolean isWritable(Object channel) {
+        return true;
+    }
+
     Object pooledByteBuf(Object channel);
 }
@@ -0,0 +1,507 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.entity.data;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entity metadata stored in slots indexed by metadata index.
+ * Values of the byte, short, int, long, float and boolean types are kept unboxed,
+ * values of all other types are stored as they are.
+ * Entries are written in the order they have been added.
+ * <p>
+ * Once the metadata has been converted to a list of {@link EntityData}, that list is the only source of truth
+ * and this container reads and writes through to it. The same happens if a packet contains an index more than once,
+ * so that every entry is written back.
+ */
+public final class CompactEntityMetadata {
+
+    private static final int KIND_OBJECT = 0;
+    private static final int KIND_BYTE = 1;
+    private static final int KIND_SHORT = 2;
+    private static final int KIND_INT = 3;
+    private static final int KIND_LONG = 4;
+    private static final int KIND_FLOAT = 5;
+    private static final int KIND_BOOLEAN = 6;
+
+    // 255 terminates the metadata array
+    private static final int MAX_INDEX = 254;
+
+    private EntityDataType<?>[] types = new EntityDataType<?>[0];
+    private long[] primitives = new long[0];
+    private Object[] objects; // allocated once a value of another type is stored
+    private byte[] order = new byte[8];
+    private int size;
+    // set once the entries are stored as a list
+    private @Nullable List<EntityData> list;
+
+    public CompactEntityMetadata() {
+    }
+
+    public static CompactEntityMetadata of(@Nullable List<EntityData> entries) {
+        CompactEntityMetadata metadata = new CompactEntityMetadata();
+        if (entries != null) {
+            for (EntityData entry : entries) {
+                metadata.setValue(entry.getIndex(), (EntityDataType<Object>) entry.getType(), entry.getValue());
+            }
+        }
+        return metadata;
+    }
+
+    private static int kindOf(EntityDataType<?> type) {
+        if (type == EntityDataTypes.BYTE) {
+            return KIND_BYTE;
+        } else if (type == EntityDataTypes.SHORT) {
+            return KIND_SHORT;
+        } else if (type == EntityDataTypes.INT) {
+            return KIND_INT;
+        } else if (type == EntityDataTypes.LONG) {
+            return KIND_LONG;
+        } else if (type == EntityDataTypes.FLOAT) {
+            return KIND_FLOAT;
+        } else if (type == EntityDataTypes.BOOLEAN) {
+            return KIND_BOOLEAN;
+        }
+        return KIND_OBJECT;
+    }
+
+    public int size() {
+        return this.list != null ? this.list.size() : this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * @param position position of the entry, in the order the entries are written in
+     * @return the metadata index of the entry
+     */
+    public int getIndex(int position) {
+        if (this.list != null) {
+            return this.list.get(position).getIndex();
+        }
+        if (position < 0 || position >= this.size) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", size: " + this.size);
+        }
+        return this.order[position] & 0xFF;
+    }
+
+    public boolean contains(int index) {
+        if (this.list != null) {
+            return this.find(index) != null;
+        }
+        return index >= 0 && index < this.types.length && this.types[index] != null;
+    }
+
+    public @Nullable EntityDataType<?> getType(int index) {
+        if (this.list != null) {
+            EntityData entry = this.find(index);
+            return entry != null ? entry.getType() : null;
+        }
+        return this.contains(index) ? this.types[index] : null;
+    }
+
+    public byte getByte(int index) {
+        return (byte) this.getLong(index);
+    }
+
+    public short getShort(int index) {
+        return (short) this.getLong(index);
+    }
+
+    public int getInt(int index) {
+        return (int) this.getLong(index);
+    }
+
+    public long getLong(int index) {
+        if (this.list != null) {
+            Object value = this.valueAt(index);
+            return value instanceof Boolean ? ((Boolean) value ? 1L : 0L) : this.asNumber(index, value).longValue();
+        }
+        switch (this.kindAt(index)) {
+            case KIND_FLOAT:
+                return (long) Float.intBitsToFloat((int) this.primitives[index]);
+            case KIND_OBJECT:
+                return this.numberAt(index).longValue();
+            default:
+                return this.primitives[index];
+        }
+    }
+
+    public float getFloat(int index) {
+        if (this.list != null) {
+            Object value = this.valueAt(index);
+            return value instanceof Boolean ? ((Boolean) value ? 1F : 0F) : this.asNumber(index, value).floatValue();
+        }
+        switch (this.kindAt(index)) {
+            case KIND_FLOAT:
+                return Float.intBitsToFloat((int) this.primitives[index]);
+            case KIND_OBJECT:
+                return this.numberAt(index).floatValue();
+            default:
+                return this.primitives[index];
+        }
+    }
+
+    public boolean getBoolean(int index) {
+        if (this.list != null || this.kindAt(index) == KIND_OBJECT) {
+            Object value = this.list != null ? this.valueAt(index) : this.objects[index];
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            return this.asNumber(index, value).longValue() != 0L;
+        }
+        return this.primitives[index] != 0L;
+    }
+
+    /**
+     * Returns the value at the index, boxing it if it is stored unboxed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T getValue(int index) {
+        if (this.list != null) {
+            EntityData entry = this.find(index);
+            return entry != null ? (T) entry.getValue() : null;
+        }
+        if (!this.contains(index)) {
+            return null;
+        }
+        EntityDataType<?> type = this.types[index];
+        return (T) (kindOf(type) == KIND_OBJECT ? this.objects[index] : box(type, this.primitives[index]));
+    }
+
+    private static Object box(EntityDataType<?> type, long bits) {
+        switch (kindOf(type)) {
+            case KIND_BYTE:
+                return (byte) bits;
+            case KIND_SHORT:
+                return (short) bits;
+            case KIND_INT:
+                return (int) bits;
+            case KIND_LONG:
+                return bits;
+            case KIND_FLOAT:
+                return Float.intBitsToFloat((int) bits);
+            case KIND_BOOLEAN:
+                return bits != 0L;
+            default:
+                throw new IllegalArgumentException("Not a primitive entity metadata type: " + type.getName());
+        }
+    }
+
+    public void setByte(int index, byte value) {
+        this.setPrimitive(index, EntityDataTypes.BYTE, value);
+    }
+
+    public void setShort(int index, short value) {
+        this.setPrimitive(index, EntityDataTypes.SHORT, value);
+    }
+
+    public void setInt(int index, int value) {
+        this.setPrimitive(index, EntityDataTypes.INT, value);
+    }
+
+    public void setLong(int index, long value) {
+        this.setPrimitive(index, EntityDataTypes.LONG, value);
+    }
+
+    public void setFloat(int index, float value) {
+        this.setPrimitive(index, EntityDataTypes.FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    public void setBoolean(int index, boolean value) {
+        this.setPrimitive(index, EntityDataTypes.BOOLEAN, value ? 1L : 0L);
+    }
+
+    public <T> void setValue(int index, EntityDataType<T> type, T value) {
+        if (this.list != null) {
+            this.setListValue(index, type, value);
+            return;
+        }
+        switch (kindOf(type)) {
+            case KIND_FLOAT:
+                this.setPrimitive(index, type, Float.floatToRawIntBits((Float) value));
+                break;
+            case KIND_BOOLEAN:
+                this.setPrimitive(index, type, (Boolean) value ? 1L : 0L);
+                break;
+            case KIND_OBJECT:
+                this.put(index, type);
+                if (this.objects == null) {
+                    this.objects = new Object[this.types.length];
+                }
+                this.objects[index] = value;
+                break;
+            default:
+                this.setPrimitive(index, type, ((Number) value).longValue());
+                break;
+        }
+    }
+
+    public void remove(int index) {
+        if (this.list != null) {
+            this.list.removeIf(entry -> entry.getIndex() == index);
+            return;
+        }
+        if (!this.contains(index)) {
+            return;
+        }
+        this.types[index] = null;
+        if (this.objects != null) {
+            this.objects[index] = null;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if ((this.order[i] & 0xFF) == index) {
+                System.arraycopy(this.order, i + 1, this.order, i, this.size - i - 1);
+                this.size--;
+                break;
+            }
+        }
+    }
+
+    public void clear() {
+        if (this.list != null) {
+            this.list.clear();
+            return;
+        }
+        Arrays.fill(this.types, null);
+        if (this.objects != null) {
+            Arrays.fill(this.objects, null);
+        }
+        this.size = 0;
+    }
+
+    public List<EntityData> toEntityData() {
+        if (this.list != null) {
+            List<EntityData> entries = new ArrayList<>(this.list.size());
+            for (EntityData entry : this.list) {
+                entries.add(new EntityData(entry.getIndex(), entry.getType(), entry.getValue()));
+            }
+            return entries;
+        }
+        List<EntityData> entries = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            int index = this.order[i] & 0xFF;
+            entries.add(new EntityData(index, this.types[index], this.getValue(index)));
+        }
+        return entries;
+    }
+
+    /**
+     * Converts the entries to a list, which is the only source of truth from now on.
+     * Changes to the list are visible through this container and the other way around.
+     *
+     * @return the list of entries, always the same instance once converted
+     */
+    @ApiStatus.Internal
+    public List<EntityData> convertToList() {
+        if (this.list == null) {
+            this.list = this.toEntityData();
+            this.types = new EntityDataType<?>[0];
+            this.primitives = new long[0];
+            this.objects = null;
+            this.size = 0;
+        }
+        return this.list;
+    }
+
+    /**
+     * @return a container reading and writing through to the given list, or to a new list if it is null
+     */
+    @ApiStatus.Internal
+    public static CompactEntityMetadata backedBy(@Nullable List<EntityData> list) {
+        CompactEntityMetadata metadata = new CompactEntityMetadata();
+        metadata.list = list != null ? list : new ArrayList<>();
+        return metadata;
+    }
+
+    /**
+     * @return the list the entries are stored in, or null if they are stored unboxed
+     */
+    @ApiStatus.Internal
+    public @Nullable List<EntityData> getList() {
+        return this.list;
+    }
+
+    @ApiStatus.Internal
+    public void readValue(PacketWrapper<?> wrapper, int index, EntityDataType<?> type) {
+        if (this.list == null && this.contains(index)) {
+            // the index is sent more than once, keep every entry as it was sent
+            this.convertToList();
+        }
+        if (this.list != null) {
+            this.list.add(new EntityData(index, type, type.getDataDeserializer().apply(wrapper)));
+            return;
+        }
+        switch (kindOf(type)) {
+            case KIND_BYTE:
+                this.setPrimitive(index, type, wrapper.readByte());
+                break;
+            case KIND_SHORT:
+                this.setPrimitive(index, type, wrapper.readShort());
+                break;
+            case KIND_INT:
+                this.setPrimitive(index, type, wrapper.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9)
+                        ? wrapper.readVarInt() : wrapper.readInt());
+                break;
+            case KIND_LONG:
+                this.setPrimitive(index, type, wrapper.readVarLong());
+                break;
+            case KIND_FLOAT:
+                this.setPrimitive(index, type, Float.floatToRawIntBits(wrapper.readFloat()));
+                break;
+            case KIND_BOOLEAN:
+                this.setPrimitive(index, type, wrapper.readBoolean() ? 1L : 0L);
+                break;
+            default:
+                this.setValue(index, (EntityDataType<Object>) type, type.getDataDeserializer().apply(wrapper));
+                break;
+        }
+    }
+
+    @ApiStatus.Internal
+    public void writeValue(PacketWrapper<?> wrapper, int index) {
+        EntityDataType<?> type = this.types[index];
+        long bits = this.primitives[index];
+        switch (kindOf(type)) {
+            case KIND_BYTE:
+                wrapper.writeByte((int) bits);
+                break;
+            case KIND_SHORT:
+                wrapper.writeShort((int) bits);
+                break;
+            case KIND_INT:
+                if (wrapper.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9)) {
+                    wrapper.writeVarInt((int) bits);
+                } else {
+                    wrapper.writeInt((int) bits);
+                }
+                break;
+            case KIND_LONG:
+                wrapper.writeVarLong(bits);
+                break;
+            case KIND_FLOAT:
+                wrapper.writeFloat(Float.intBitsToFloat((int) bits));
+                break;
+            case KIND_BOOLEAN:
+                wrapper.writeBoolean(bits != 0L);
+                break;
+            default:
+                type.getDataSerializer().accept(wrapper, this.objects[index]);
+                break;
+        }
+    }
+
+    private void setPrimitive(int index, EntityDataType<?> type, long bits) {
+        if (this.list != null) {
+            this.setListValue(index, type, box(type, bits));
+            return;
+        }
+        this.put(index, type);
+        this.primitives[index] = bits;
+        if (this.objects != null) {
+            this.objects[index] = null;
+        }
+    }
+
+    private void put(int index, EntityDataType<?> type) {
+        if (index < 0 || index > MAX_INDEX) {
+            throw new IllegalArgumentException("Invalid entity metadata index: " + index);
+        }
+        if (index >= this.types.length) {
+            int length = Math.min(MAX_INDEX + 1, Math.max(index + 1, this.types.length * 2));
+            this.types = Arrays.copyOf(this.types, length);
+            this.primitives = Arrays.copyOf(this.primitives, length);
+            if (this.objects != null) {
+                this.objects = Arrays.copyOf(this.objects, length);
+            }
+        }
+        if (this.types[index] == null) {
+            if (this.size == this.order.length) {
+                this.order = Arrays.copyOf(this.order, this.size * 2);
+            }
+            this.order[this.size++] = (byte) index;
+        }
+        this.types[index] = type;
+    }
+
+    // the last entry of an index is the one the client ends up with
+    private @Nullable EntityData find(int index) {
+        for (int i = this.list.size() - 1; i >= 0; i--) {
+            EntityData entry = this.list.get(i);
+            if (entry.getIndex() == index) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void setListValue(int index, EntityDataType<?> type, Object value) {
+        if (index < 0 || index > MAX_INDEX) {
+            throw new IllegalArgumentException("Invalid entity metadata index: " + index);
+        }
+        EntityData entry = this.find(index);
+        if (entry == null) {
+            this.list.add(new EntityData(index, type, value));
+        } else {
+            entry.setType(type);
+            entry.setValue(value);
+        }
+    }
+
+    private Object valueAt(int index) {
+        EntityData entry = this.find(index);
+        if (entry == null) {
+            throw new IllegalStateException("No entity metadata at index " + index);
+        }
+        return entry.getValue();
+    }
+
+    private int kindAt(int index) {
+        if (!this.contains(index)) {
+            throw new IllegalStateException("No entity metadata at index " + index);
+        }
+        return kindOf(this.types[index]);
+    }
+
+    private Number numberAt(int index) {
+        return this.asNumber(index, this.objects[index]);
+    }
+
+    private Number asNumber(int index, Object value) {
+        if (!(value instanceof Number)) {
+            throw new IllegalStateException("Entity metadata at index " + index
+                    + " is not a number: " + this.getType(index).getName());
+        }
+        return (Number) value;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactEntityMetadata" + this.toEntityData();
+    }
+}
@@ -20,6 +20,14 @@ package com.github.retrooper.packetevents.protocol.nbt;
 
 public class NBTByte extends NBTNumber {
 
+    private static final NBTByte[] CACHE = new NBTByte[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new NBTByte((byte) (i - 128));
+        }
+    }
+
     protected final byte value;
 
     public NBTByte(byte value) {
@@ -30,6 +38,17 @@ public class NBTByte extends NBTNumber {
         this((byte) (value ? 1 : 0));
     }
 
+    /**
+     * Returns a shared instance for the given value, like {@link Byte#valueOf(byte)}.
+     */
+    public static NBTByte of(byte value) {
+        return CACHE[value + 128];
+    }
+
+    public static NBTByte of(boolean value) {
+        return of((byte) (value ? 1 : 0));
+    }
+
     public boolean getAsBool() {
         return this.value != 0;
     }
@@ -20,12 +20,31 @@ package com.github.retrooper.packetevents.protocol.nbt;
 
 public class NBTInt extends NBTNumber {
 
+    private static final NBTInt[] CACHE = new NBTInt[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new NBTInt(i - 128);
+        }
+    }
+
     protected final int value;
 
     public NBTInt(int value) {
         this.value = value;
     }
 
+    /**
+     * Returns a shared instance for values between -128 and 127 and a new one otherwise,
+     * like {@link Integer#valueOf(int)}.
+     */
+    public static NBTInt of(int value) {
+        if (value >= -128 && value <= 127) {
+            return CACHE[value + 128];
+        }
+        return new NBTInt(value);
+    }
+
     @Override
     public NBTType<NBTInt> getType() {
         return NBTType.INT;
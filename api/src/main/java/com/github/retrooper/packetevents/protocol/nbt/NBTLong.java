@@ -20,12 +20,31 @@ package com.github.retrooper.packetevents.protocol.nbt;
 
 public class NBTLong extends NBTNumber {
 
+    private static final NBTLong[] CACHE = new NBTLong[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new NBTLong(i - 128);
+        }
+    }
+
     protected final long value;
 
     public NBTLong(long value) {
         this.value = value;
     }
 
+    /**
+     * Returns a shared instance for values between -128 and 127 and a new one otherwise,
+     * like {@link Long#valueOf(long)}.
+     */
+    public static NBTLong of(long value) {
+        if (value >= -128 && value <= 127) {
+            return CACHE[(int) value + 128];
+        }
+        return new NBTLong(value);
+    }
+
     @Override
     public NBTType<NBTLong> getType() {
         return NBTType.LONG;
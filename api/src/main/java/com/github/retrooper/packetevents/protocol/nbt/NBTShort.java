@@ -19,12 +19,31 @@ package com.github.retrooper.packetevents.protocol.nbt;
 
 public class NBTShort extends NBTNumber {
 
+    private static final NBTShort[] CACHE = new NBTShort[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new NBTShort((short) (i - 128));
+        }
+    }
+
     protected final short value;
 
     public NBTShort(short value) {
         this.value = value;
     }
 
+    /**
+     * Returns a shared instance for values between -128 and 127 and a new one otherwise,
+     * like {@link Short#valueOf(short)}.
+     */
+    public static NBTShort of(short value) {
+        if (value >= -128 && value <= 127) {
+            return CACHE[value + 128];
+        }
+        return new NBTShort(value);
+    }
+
     @Override
     public NBTType<NBTShort> getType() {
         return NBTType.SHORT;
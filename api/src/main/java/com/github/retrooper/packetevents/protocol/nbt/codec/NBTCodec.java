@@ -18,12 +18,16 @@
 
 package com.github.retrooper.packetevents.protocol.nbt.codec;
 
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.nbt.*;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
 import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.google.gson.*;
 import com.google.gson.internal.LazilyParsedNumber;
 
@@ -158,9 +162,19 @@ public class NBTCodec {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             try {
                 final boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
-                return DefaultNBTSerializer.INSTANCE.deserializeTag(
-                        limiter, new ByteBufInputStream(byteBuf), named);
-            } catch (IOException e) {
+                // Wrappers may be used without an initialized API, fall back to plain eager decoding then
+                PacketEventsAPI<?> api = PacketEvents.getAPI();
+                PacketEventsSettings settings = api != null ? api.getSettings() : null;
+                if (settings == null) {
+                    return ByteBufNBTSerializer.INSTANCE.deserializeTag(limiter, byteBuf, named);
+                }
+                ByteBufNBTSerializer serializer = settings.isNBTNameInterningEnabled()
+                        ? ByteBufNBTSerializer.INTERNING : ByteBufNBTSerializer.INSTANCE;
+                if (settings.isLazyNBTDecodingEnabled()) {
+                    return serializer.deserializeTagLazily(limiter, byteBuf, named);
+                }
+                return serializer.deserializeTag(limiter, byteBuf, named);
+            } catch (IOException | IndexOutOfBoundsException e) {
                 e.printStackTrace();
             }
         }
@@ -189,12 +203,12 @@ public class NBTCodec {
 
     public static void writeNBTToBuffer(Object byteBuf, ServerVersion serverVersion, NBT tag) {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
-            try (ByteBufOutputStream outputStream = new ByteBufOutputStream(byteBuf)) {
+            try {
                 if (tag != null) {
                     boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
-                    DefaultNBTSerializer.INSTANCE.serializeTag(outputStream, tag, named);
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(byteBuf, tag, named);
                 } else {
-                    DefaultNBTSerializer.INSTANCE.serializeTag(outputStream, NBTEnd.INSTANCE);
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(byteBuf, NBTEnd.INSTANCE);
                 }
             } catch (IOException e) {
                 throw new IllegalStateException(e);
@@ -0,0 +1,542 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTEnd;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes NBT directly on a netty buffer, producing the same data as {@link DefaultNBTSerializer}
+ * without going through stream adapters.
+ * The limiter is charged the same amounts as with {@link DefaultNBTSerializer}.
+ * Small numbers are read as shared instances, and compound key names can be shared through a {@link NBTNameInterner}.
+ * Compounds can also be read lazily with {@link #deserializeTagLazily(NBTLimiter, Object, boolean)}.
+ */
+public final class ByteBufNBTSerializer implements NBTReader<NBT, Object>, NBTWriter<NBT, Object> {
+
+    public static final ByteBufNBTSerializer INSTANCE = new ByteBufNBTSerializer(null);
+    public static final ByteBufNBTSerializer INTERNING = new ByteBufNBTSerializer(new NBTNameInterner(1024, 64));
+
+    private static final int MAX_ARRAY_LENGTH = 1 << 24;
+
+    private final @Nullable NBTNameInterner interner;
+
+    public ByteBufNBTSerializer(@Nullable NBTNameInterner interner) {
+        this.interner = interner;
+    }
+
+    @Override
+    public NBT deserializeTag(NBTLimiter limiter, Object buffer, boolean named) throws IOException {
+        int id = readTagId(limiter, buffer);
+        if (id == 0) {
+            return null;
+        }
+        if (named) {
+            readTagName(limiter, buffer);
+        }
+        return readTag(limiter, buffer, id);
+    }
+
+    /**
+     * Reads a tag like {@link #deserializeTag(NBTLimiter, Object, boolean)}, but a compound tag is only
+     * validated and copied. Its entries are decoded once they are accessed, and it is written
+     * back as the original bytes as long as it hasn't been modified.
+     * The returned compound must not be accessed by multiple threads at once.
+     */
+    public NBT deserializeTagLazily(NBTLimiter limiter, Object buffer, boolean named) throws IOException {
+        int id = readTagId(limiter, buffer);
+        if (id == 0) {
+            return null;
+        }
+        if (named) {
+            readTagName(limiter, buffer);
+        }
+        if (id != 10) {
+            return readTag(limiter, buffer, id);
+        }
+        int start = ByteBufHelper.readerIndex(buffer);
+        skipTag(limiter, buffer, id);
+        byte[] data = new byte[ByteBufHelper.readerIndex(buffer) - start];
+        ByteBufHelper.getBytes(buffer, start, data);
+        return new LazyNBTCompound(this, data, 0, data.length);
+    }
+
+    /**
+     * Hashes a tag like {@link NBT#hashCode()}, but compounds read by {@link #deserializeTagLazily(NBTLimiter, Object, boolean)}
+     * are hashed by their original bytes instead of being decoded. Equal tags may have different content hashes,
+     * e.g. if only one of them is lazy, so this is only suited to find candidates for a full comparison.
+     */
+    public static int contentHash(NBT tag) {
+        return tag instanceof LazyNBTCompound ? ((LazyNBTCompound) tag).contentHash() : tag.hashCode();
+    }
+
+    @Override
+    public void serializeTag(Object buffer, NBT tag, boolean named) throws IOException {
+        int id = getTagId(tag.getType());
+        ByteBufHelper.writeByte(buffer, id);
+        if (id == 0) {
+            return;
+        }
+        if (named) {
+            writeString(buffer, "");
+        }
+        writeTag(buffer, id, tag);
+    }
+
+    static int readTagId(NBTLimiter limiter, Object buffer) throws IOException {
+        limiter.increment(1);
+        int id = ByteBufHelper.readByte(buffer);
+        if (id < 0 || id > 12) {
+            throw new IOException(MessageFormat.format("Unknown nbt type id {0}", id));
+        }
+        return id;
+    }
+
+    String readTagName(NBTLimiter limiter, Object buffer) throws IOException {
+        String name = readString(buffer, this.interner);
+        limiter.increment(name.length() * 2 + 28);
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    NBT readTag(NBTLimiter limiter, Object buffer, int id) throws IOException {
+        switch (id) {
+            case 0:
+                limiter.increment(8);
+                return NBTEnd.INSTANCE;
+            case 1:
+                limiter.increment(9);
+                return NBTByte.of(ByteBufHelper.readByte(buffer));
+            case 2:
+                limiter.increment(10);
+                return NBTShort.of(ByteBufHelper.readShort(buffer));
+            case 3:
+                limiter.increment(12);
+                return NBTInt.of(ByteBufHelper.readInt(buffer));
+            case 4:
+                limiter.increment(16);
+                return NBTLong.of(ByteBufHelper.readLong(buffer));
+            case 5:
+                limiter.increment(12);
+                return new NBTFloat(ByteBufHelper.readFloat(buffer));
+            case 6:
+                limiter.increment(16);
+                return new NBTDouble(ByteBufHelper.readDouble(buffer));
+            case 7: {
+                limiter.increment(24);
+                int length = ByteBufHelper.readInt(buffer);
+                if (length >= MAX_ARRAY_LENGTH) {
+                    throw new IllegalArgumentException("Byte array length is too large: " + length);
+                }
+                limiter.checkReadability(length);
+                limiter.increment(length);
+                byte[] array = new byte[length];
+                ByteBufHelper.readBytes(buffer, array);
+                return new NBTByteArray(array);
+            }
+            case 8: {
+                limiter.increment(36);
+                String string = readString(buffer, null);
+                limiter.increment(string.length() * 2);
+                return new NBTString(string);
+            }
+            case 9: {
+                limiter.increment(37);
+                int valueId = readTagId(limiter, buffer);
+                int size = ByteBufHelper.readInt(buffer);
+                if (valueId == 0 && size > 0) {
+                    throw new IllegalStateException("Missing nbt list values tag type");
+                }
+                limiter.increment(4 * size);
+                NBTList<NBT> list = new NBTList<>((NBTType<NBT>) getTagType(valueId), size);
+                for (int i = 0; i < size; i++) {
+                    list.addTag(readTag(limiter, buffer, valueId));
+                }
+                return list;
+            }
+            case 10: {
+                limiter.increment(48);
+                NBTCompound compound = new NBTCompound();
+                int valueId;
+                while ((valueId = readTagId(limiter, buffer)) != 0) {
+                    String name = readTagName(limiter, buffer);
+                    NBT nbt = readTag(limiter, buffer, valueId);
+                    if (!compound.getTags().containsKey(name)) {
+                        limiter.increment(36);
+                    }
+                    compound.setTag(name, nbt);
+                }
+                return compound;
+            }
+            case 11: {
+                limiter.increment(24);
+                int length = ByteBufHelper.readInt(buffer);
+                if (length >= MAX_ARRAY_LENGTH) {
+                    throw new IllegalArgumentException("Int array length is too large: " + length);
+                }
+                limiter.checkReadability(length * 4);
+                limiter.increment(length * 4);
+                int[] array = new int[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = ByteBufHelper.readInt(buffer);
+                }
+                return new NBTIntArray(array);
+            }
+            case 12: {
+                limiter.increment(24);
+                int length = ByteBufHelper.readInt(buffer);
+                if (length >= MAX_ARRAY_LENGTH) {
+                    throw new IllegalArgumentException("Long array length is too large: " + length);
+                }
+                limiter.checkReadability(length * 8);
+                limiter.increment(length * 8);
+                long[] array = new long[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = ByteBufHelper.readLong(buffer);
+                }
+                return new NBTLongArray(array);
+            }
+            default:
+                throw new IOException(MessageFormat.format("Unknown nbt type id {0}", id));
+        }
+    }
+
+    /**
+     * Skips a tag, charging the limiter at least as much as reading it would.
+     */
+    static void skipTag(NBTLimiter limiter, Object buffer, int id) throws IOException {
+        switch (id) {
+            case 0:
+                limiter.increment(8);
+                break;
+            case 1:
+                limiter.increment(9);
+                ByteBufHelper.skipBytes(buffer, 1);
+                break;
+            case 2:
+                limiter.increment(10);
+                ByteBufHelper.skipBytes(buffer, 2);
+                break;
+            case 3:
+            case 5:
+                limiter.increment(12);
+                ByteBufHelper.skipBytes(buffer, 4);
+                break;
+            case 4:
+            case 6:
+                limiter.increment(16);
+                ByteBufHelper.skipBytes(buffer, 8);
+                break;
+            case 7:
+            case 11:
+            case 12: {
+                limiter.increment(24);
+                int length = ByteBufHelper.readInt(buffer);
+                if (length >= MAX_ARRAY_LENGTH) {
+                    throw new IllegalArgumentException("Array length is too large: " + length);
+                }
+                int bytes = length * (id == 7 ? 1 : id == 11 ? 4 : 8);
+                limiter.checkReadability(bytes);
+                limiter.increment(bytes);
+                ByteBufHelper.skipBytes(buffer, bytes);
+                break;
+            }
+            case 8: {
+                limiter.increment(36);
+                int length = ByteBufHelper.readUnsignedShort(buffer);
+                // the encoded length is never smaller than the number of characters
+                limiter.increment(length * 2);
+                ByteBufHelper.skipBytes(buffer, length);
+                break;
+            }
+            case 9: {
+                limiter.increment(37);
+                int valueId = readTagId(limiter, buffer);
+                int size = ByteBufHelper.readInt(buffer);
+                if (valueId == 0 && size > 0) {
+                    throw new IllegalStateException("Missing nbt list values tag type");
+                }
+                limiter.increment(4 * size);
+                for (int i = 0; i < size; i++) {
+                    skipTag(limiter, buffer, valueId);
+                }
+                break;
+            }
+            case 10: {
+                limiter.increment(48);
+                int valueId;
+                while ((valueId = readTagId(limiter, buffer)) != 0) {
+                    int length = ByteBufHelper.readUnsignedShort(buffer);
+                    limiter.increment(length * 2 + 28);
+                    ByteBufHelper.skipBytes(buffer, length);
+                    skipTag(limiter, buffer, valueId);
+                    limiter.increment(36);
+                }
+                break;
+            }
+            default:
+                throw new IOException(MessageFormat.format("Unknown nbt type id {0}", id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeTag(Object buffer, int id, NBT tag) throws IOException {
+        switch (id) {
+            case 0:
+                break;
+            case 1:
+                ByteBufHelper.writeByte(buffer, ((NBTNumber) tag).getAsByte());
+                break;
+            case 2:
+                ByteBufHelper.writeShort(buffer, ((NBTNumber) tag).getAsShort());
+                break;
+            case 3:
+                ByteBufHelper.writeInt(buffer, ((NBTNumber) tag).getAsInt());
+                break;
+            case 4:
+                ByteBufHelper.writeLong(buffer, ((NBTNumber) tag).getAsLong());
+                break;
+            case 5:
+                ByteBufHelper.writeFloat(buffer, ((NBTNumber) tag).getAsFloat());
+                break;
+            case 6:
+                ByteBufHelper.writeDouble(buffer, ((NBTNumber) tag).getAsDouble());
+                break;
+            case 7: {
+                byte[] array = ((NBTByteArray) tag).getValue();
+                ByteBufHelper.writeInt(buffer, array.length);
+                ByteBufHelper.writeBytes(buffer, array);
+                break;
+            }
+            case 8:
+                writeString(buffer, ((NBTString) tag).getValue());
+                break;
+            case 9: {
+                NBTList<NBT> list = (NBTList<NBT>) tag;
+                int valueId = getTagId(list.getTagsType());
+                ByteBufHelper.writeByte(buffer, valueId);
+                List<NBT> tags = list.getTags();
+                ByteBufHelper.writeInt(buffer, tags.size());
+                for (NBT value : tags) {
+                    writeTag(buffer, getTagId(value.getType()), value);
+                }
+                break;
+            }
+            case 10: {
+                if (tag instanceof LazyNBTCompound && ((LazyNBTCompound) tag).isUnmodified()) {
+                    ((LazyNBTCompound) tag).writeTo(buffer);
+                    break;
+                }
+                for (Map.Entry<String, NBT> entry : ((NBTCompound) tag).getTags().entrySet()) {
+                    NBT value = entry.getValue();
+                    int valueId = getTagId(value.getType());
+                    ByteBufHelper.writeByte(buffer, valueId);
+                    writeString(buffer, entry.getKey());
+                    writeTag(buffer, valueId, value);
+                }
+                ByteBufHelper.writeByte(buffer, 0);
+                break;
+            }
+            case 11: {
+                int[] array = ((NBTIntArray) tag).getValue();
+                ByteBufHelper.writeInt(buffer, array.length);
+                for (int i : array) {
+                    ByteBufHelper.writeInt(buffer, i);
+                }
+                break;
+            }
+            case 12: {
+                long[] array = ((NBTLongArray) tag).getValue();
+                ByteBufHelper.writeInt(buffer, array.length);
+                for (long l : array) {
+                    ByteBufHelper.writeLong(buffer, l);
+                }
+                break;
+            }
+            default:
+                throw new IOException(MessageFormat.format("Unknown nbt type {0}", tag.getType()));
+        }
+    }
+
+    private static NBTType<?> getTagType(int id) {
+        switch (id) {
+            case 0:
+                return NBTType.END;
+            case 1:
+                return NBTType.BYTE;
+            case 2:
+                return NBTType.SHORT;
+            case 3:
+                return NBTType.INT;
+            case 4:
+                return NBTType.LONG;
+            case 5:
+                return NBTType.FLOAT;
+            case 6:
+                return NBTType.DOUBLE;
+            case 7:
+                return NBTType.BYTE_ARRAY;
+            case 8:
+                return NBTType.STRING;
+            case 9:
+                return NBTType.LIST;
+            case 10:
+                return NBTType.COMPOUND;
+            case 11:
+                return NBTType.INT_ARRAY;
+            default:
+                return NBTType.LONG_ARRAY;
+        }
+    }
+
+    private static int getTagId(NBTType<?> type) throws IOException {
+        // roughly ordered by how common the types are
+        if (type == NBTType.COMPOUND) return 10;
+        if (type == NBTType.STRING) return 8;
+        if (type == NBTType.INT) return 3;
+        if (type == NBTType.BYTE) return 1;
+        if (type == NBTType.LIST) return 9;
+        if (type == NBTType.SHORT) return 2;
+        if (type == NBTType.END) return 0;
+        if (type == NBTType.FLOAT) return 5;
+        if (type == NBTType.DOUBLE) return 6;
+        if (type == NBTType.LONG) return 4;
+        if (type == NBTType.INT_ARRAY) return 11;
+        if (type == NBTType.LONG_ARRAY) return 12;
+        if (type == NBTType.BYTE_ARRAY) return 7;
+        throw new IOException(MessageFormat.format("Unknown nbt type {0}", type));
+    }
+
+    // Strings are encoded as modified UTF-8, the same way as DataInput#readUTF
+
+    private static String readString(Object buffer, @Nullable NBTNameInterner interner) throws IOException {
+        int length = ByteBufHelper.readUnsignedShort(buffer);
+        byte[] bytes = new byte[length];
+        ByteBufHelper.readBytes(buffer, bytes);
+
+        int i = 0;
+        while (i < length && bytes[i] >= 0) {
+            i++;
+        }
+        if (i == length) {
+            // only ascii characters, which decode to themselves
+            return interner != null ? interner.intern(bytes) : new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        char[] chars = new char[length];
+        for (int j = 0; j < i; j++) {
+            chars[j] = (char) bytes[j];
+        }
+        int count = i;
+        while (i < length) {
+            int a = bytes[i] & 0xFF;
+            if (a < 0x80) {
+                chars[count++] = (char) a;
+                i++;
+            } else if ((a & 0xE0) == 0xC0) {
+                if (i + 1 >= length) {
+                    throw new UTFDataFormatException("malformed input: partial character at end");
+                }
+                int b = bytes[i + 1];
+                if ((b & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("malformed input around byte " + (i + 1));
+                }
+                chars[count++] = (char) (((a & 0x1F) << 6) | (b & 0x3F));
+                i += 2;
+            } else if ((a & 0xF0) == 0xE0) {
+                if (i + 2 >= length) {
+                    throw new UTFDataFormatException("malformed input: partial character at end");
+                }
+                int b = bytes[i + 1];
+                int c = bytes[i + 2];
+                if ((b & 0xC0) != 0x80 || (c & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("malformed input around byte " + (i + 1));
+                }
+                chars[count++] = (char) (((a & 0x0F) << 12) | ((b & 0x3F) << 6) | (c & 0x3F));
+                i += 3;
+            } else {
+                throw new UTFDataFormatException("malformed input around byte " + i);
+            }
+        }
+        String string = new String(chars, 0, count);
+        return interner != null ? interner.intern(string) : string;
+    }
+
+    private static void writeString(Object buffer, String string) throws IOException {
+        int length = string.length();
+        int encodedLength = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c == 0 || c >= 0x80) {
+                encodedLength += c >= 0x800 ? 2 : 1;
+            }
+        }
+        if (encodedLength > 65535) {
+            throw new UTFDataFormatException("encoded string too long: " + encodedLength + " bytes");
+        }
+
+        byte[] bytes = new byte[encodedLength];
+        if (encodedLength == length) {
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) string.charAt(i);
+            }
+        } else {
+            int index = 0;
+            for (int i = 0; i < length; i++) {
+                char c = string.charAt(i);
+                if (c != 0 && c < 0x80) {
+                    bytes[index++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[index++] = (byte) (0xC0 | (c >> 6));
+                    bytes[index++] = (byte) (0x80 | (c & 0x3F));
+                } else {
+                    bytes[index++] = (byte) (0xE0 | (c >> 12));
+                    bytes[index++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[index++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+        ByteBufHelper.writeShort(buffer, encodedLength);
+        ByteBufHelper.writeBytes(buffer, bytes);
+    }
+}
@@ -51,19 +51,19 @@ public class DefaultNBTSerializer extends NBTSerializer<DataInput, DataOutput> {
         });
         registerType(NBTType.BYTE, 1, (limiter, stream) -> {
             limiter.increment(9);
-            return new NBTByte(stream.readByte());
+            return NBTByte.of(stream.readByte());
         }, (stream, tag) -> stream.writeByte(tag.getAsByte()));
         registerType(NBTType.SHORT, 2, (limiter, stream) -> {
             limiter.increment(10);
-            return new NBTShort(stream.readShort());
+            return NBTShort.of(stream.readShort());
         }, (stream, tag) -> stream.writeShort(tag.getAsShort()));
         registerType(NBTType.INT, 3, (limiter, stream) -> {
             limiter.increment(12);
-            return new NBTInt(stream.readInt());
+            return NBTInt.of(stream.readInt());
         }, (stream, tag) -> stream.writeInt(tag.getAsInt()));
         registerType(NBTType.LONG, 4, (limiter, stream) -> {
             limiter.increment(16);
-            return new NBTLong(stream.readLong());
+            return NBTLong.of(stream.readLong());
         }, (stream, tag) -> stream.writeLong(tag.getAsLong()));
         registerType(NBTType.FLOAT, 5, (limiter, stream) -> {
             limiter.increment(12);
@@ -0,0 +1,267 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTEnd;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compound tag which keeps its encoded entries and only decodes them when they are accessed.
+ * Nested compounds share the same data and are lazy as well.
+ * The data has already been validated by {@link ByteBufNBTSerializer#skipTag(NBTLimiter, Object, int)},
+ * so decoding doesn't charge any limiter again.
+ */
+final class LazyNBTCompound extends NBTCompound {
+
+    private final ByteBufNBTSerializer serializer;
+    // the encoded entries followed by the end tag, null once this compound has been modified
+    private byte[] data;
+    private final int offset;
+    private final int length;
+    private boolean materialized;
+    // entry numbers by name, and the offsets of all entries followed by the offset of the end tag
+    private Map<String, Integer> index;
+    private int[] entryStarts;
+
+    LazyNBTCompound(ByteBufNBTSerializer serializer, byte[] data, int offset, int length) {
+        this.serializer = serializer;
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    private boolean isLazy() {
+        return this.data != null && !this.materialized;
+    }
+
+    /**
+     * Checks if the original data still matches this compound.
+     * Decoded tags which could have been changed in place, like lists, count as modified.
+     */
+    boolean isUnmodified() {
+        if (this.data == null) {
+            return false;
+        }
+        for (NBT tag : this.tags.values()) {
+            if (tag instanceof LazyNBTCompound) {
+                if (!((LazyNBTCompound) tag).isUnmodified()) {
+                    return false;
+                }
+            } else if (!(tag instanceof NBTNumber || tag instanceof NBTString || tag instanceof NBTEnd)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the original data while it still matches this compound, without decoding it.
+     */
+    int contentHash() {
+        if (!isUnmodified()) {
+            return hashCode();
+        }
+        int hash = 1;
+        for (int i = this.offset, end = this.offset + this.length; i < end; i++) {
+            hash = 31 * hash + this.data[i];
+        }
+        return hash;
+    }
+
+    void writeTo(Object buffer) {
+        ByteBufHelper.writeBytes(buffer, this.data, this.offset, this.length);
+    }
+
+    private Object wrap(int readerIndex) {
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(this.data);
+        ByteBufHelper.writerIndex(buffer, this.offset + this.length);
+        ByteBufHelper.readerIndex(buffer, readerIndex);
+        return buffer;
+    }
+
+    private void index() {
+        if (this.index != null) {
+            return;
+        }
+        Map<String, Integer> index = new LinkedHashMap<>();
+        int[] entryStarts = new int[8];
+        int count = 0;
+        Object buffer = wrap(this.offset);
+        try {
+            while (true) {
+                if (count == entryStarts.length) {
+                    entryStarts = Arrays.copyOf(entryStarts, count * 2);
+                }
+                entryStarts[count] = ByteBufHelper.readerIndex(buffer);
+                int id = ByteBufNBTSerializer.readTagId(NBTLimiter.noop(), buffer);
+                if (id == 0) {
+                    break;
+                }
+                String name = this.serializer.readTagName(NBTLimiter.noop(), buffer);
+                ByteBufNBTSerializer.skipTag(NBTLimiter.noop(), buffer, id);
+                // like a map, the last entry with a name wins
+                index.put(name, count++);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.index = index;
+        this.entryStarts = entryStarts;
+    }
+
+    private NBT readEntry(int entry) {
+        int start = this.entryStarts[entry];
+        int id = this.data[start];
+        int nameLength = ((this.data[start + 1] & 0xFF) << 8) | (this.data[start + 2] & 0xFF);
+        int valueStart = start + 3 + nameLength;
+        if (id == 10) {
+            return new LazyNBTCompound(this.serializer, this.data, valueStart,
+                    this.entryStarts[entry + 1] - valueStart);
+        }
+        try {
+            return this.serializer.readTag(NBTLimiter.noop(), wrap(valueStart), id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void materialize() {
+        if (!isLazy()) {
+            return;
+        }
+        index();
+        // keep the tags which have already been handed out
+        Map<String, NBT> decoded = new HashMap<>(this.tags);
+        this.tags.clear();
+        for (Map.Entry<String, Integer> entry : this.index.entrySet()) {
+            NBT tag = decoded.get(entry.getKey());
+            this.tags.put(entry.getKey(), tag != null ? tag : readEntry(entry.getValue()));
+        }
+        this.materialized = true;
+        this.index = null;
+        this.entryStarts = null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (isLazy()) {
+            index();
+            return this.index.isEmpty();
+        }
+        return super.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        if (isLazy()) {
+            index();
+            return this.index.size();
+        }
+        return super.size();
+    }
+
+    @Override
+    public Set<String> getTagNames() {
+        if (isLazy()) {
+            index();
+            return Collections.unmodifiableSet(this.index.keySet());
+        }
+        return super.getTagNames();
+    }
+
+    @Override
+    public Map<String, NBT> getTags() {
+        materialize();
+        return super.getTags();
+    }
+
+    @Override
+    public @Nullable NBT getTagOrNull(String key) {
+        if (!isLazy()) {
+            return super.getTagOrNull(key);
+        }
+        NBT tag = this.tags.get(key);
+        if (tag == null) {
+            index();
+            Integer entry = this.index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            tag = readEntry(entry);
+            this.tags.put(key, tag);
+        }
+        return tag;
+    }
+
+    @Override
+    public NBT removeTag(String key) {
+        materialize();
+        this.data = null;
+        return super.removeTag(key);
+    }
+
+    @Override
+    public void setTag(String key, NBT tag) {
+        materialize();
+        this.data = null;
+        super.setTag(key, tag);
+    }
+
+    @Override
+    public NBTCompound copy() {
+        if (isUnmodified()) {
+            return new LazyNBTCompound(this.serializer, this.data, this.offset, this.length);
+        }
+        materialize();
+        return super.copy();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        materialize();
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        materialize();
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        materialize();
+        return super.toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A bounded table of NBT compound key names, used to share one String instance
+ * between all tags with the same key.
+ * Colliding names replace each other, so the table never grows past its capacity.
+ * It is safe to use from multiple threads, as Strings are immutable.
+ */
+public final class NBTNameInterner {
+
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity  the number of slots, rounded up to a power of two
+     * @param maxLength the longest name that will be interned
+     */
+    public NBTNameInterner(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1) << 1);
+        this.table = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the shared name for the given ascii characters.
+     *
+     * @param ascii the encoded name, all bytes must be between 0 and 127
+     */
+    public String intern(byte[] ascii) {
+        int length = ascii.length;
+        if (length > this.maxLength) {
+            return new String(ascii, StandardCharsets.ISO_8859_1);
+        }
+        // same as String#hashCode for ascii characters
+        int hash = 0;
+        for (byte b : ascii) {
+            hash = 31 * hash + b;
+        }
+        int index = (hash ^ (hash >>> 16)) & this.mask;
+        String cached = this.table[index];
+        if (cached != null && cached.length() == length) {
+            int i = 0;
+            while (i < length && cached.charAt(i) == ascii[i]) {
+                i++;
+            }
+            if (i == length) {
+                return cached;
+            }
+        }
+        String name = new String(ascii, StandardCharsets.ISO_8859_1);
+        this.table[index] = name;
+        return name;
+    }
+
+    /**
+     * Returns the shared instance of the given name.
+     */
+    public String intern(String name) {
+        if (name.length() > this.maxLength) {
+            return name;
+        }
+        int hash = name.hashCode();
+        int index = (hash ^ (hash >>> 16)) & this.mask;
+        String cached = this.table[index];
+        if (name.equals(cached)) {
+            return cached;
+        }
+        this.table[index] = name;
+        return name;
+    }
+}
@@ -76,8 +76,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public final class PacketType {
 
@@ -193,6 +191,10 @@ public final class PacketType {
         }
     }
 
+    private static @Nullable PacketTypeCommon getById(PacketTypeCommon[] packetTypes, int packetId) {
+        return packetId >= 0 && packetId < packetTypes.length ? packetTypes[packetId] : null;
+    }
+
     public static class Handshaking {
 
         public enum Client implements PacketTypeConstant, ServerBoundPacket {
@@ -443,7 +445,9 @@ public final class PacketType {
             SELECT_KNOWN_PACKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [version index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[SERVERBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Client() {
@@ -460,13 +464,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] packetTypes = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Client value = Configuration.Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    packetTypes[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = packetTypes;
                 INDEX++;
             }
 
@@ -479,8 +484,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             @Deprecated
@@ -530,7 +534,9 @@ public final class PacketType {
             SERVER_LINKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [version index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[CLIENTBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Server() {
@@ -549,13 +555,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] packetTypes = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Server value = Configuration.Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    packetTypes[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = packetTypes;
                 INDEX++;
             }
 
@@ -568,8 +575,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             @Deprecated
@@ -733,7 +739,9 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [version index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[SERVERBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Client() {
@@ -747,20 +755,19 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                return packetIdMap.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] packetTypes = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Client value = Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index,
-                            k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    packetTypes[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = packetTypes;
                 INDEX++;
             }
 
@@ -983,7 +990,9 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [version index][packet id]
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[CLIENTBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Server() {
@@ -1005,8 +1014,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             @Override
@@ -1016,13 +1024,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] packetTypes = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Server value = Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    packetTypes[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = packetTypes;
                 INDEX++;
             }
 
@@ -19,6 +19,8 @@
 package com.github.retrooper.packetevents.protocol.player;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.PacketBatch;
+import com.github.retrooper.packetevents.manager.protocol.PacketSendQueue;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
@@ -52,6 +54,7 @@ import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public class User implements IRegistryHolder {
 
@@ -64,6 +67,7 @@ public class User implements IRegistryHolder {
 
     private DimensionType dimensionType = DimensionTypes.OVERWORLD;
     private final Map<ResourceLocation, IRegistry<?>> registries = new HashMap<>();
+    private volatile PacketSendQueue sendQueue;
 
     public User(Object channel,
                 ConnectionState connectionState, ClientVersion clientVersion,
@@ -176,6 +180,48 @@ public class User implements IRegistryHolder {
         ChannelHelper.flush(channel);
     }
 
+    /**
+     * Writes several packets and flushes them together.
+     *
+     * @see com.github.retrooper.packetevents.manager.protocol.ProtocolManager#batch(Object, Consumer)
+     */
+    public void batch(Consumer<PacketBatch> writer) {
+        PacketEvents.getAPI().getProtocolManager().batch(channel, writer);
+    }
+
+    /**
+     * The send queue of this user, which is created when first used.
+     * Queued packets are written on the event loop, several at a time.
+     *
+     * @see PacketSendQueue
+     */
+    public PacketSendQueue getSendQueue() {
+        PacketSendQueue queue = sendQueue;
+        if (queue == null) {
+            synchronized (this) {
+                queue = sendQueue;
+                if (queue == null) {
+                    sendQueue = queue = new PacketSendQueue(channel);
+                }
+            }
+        }
+        return queue;
+    }
+
+    public boolean queuePacket(PacketWrapper<?> wrapper) {
+        return getSendQueue().enqueue(wrapper);
+    }
+
+    /**
+     * Drains the send queue of this user, if it was ever used.
+     */
+    public void flushSendQueue() {
+        PacketSendQueue queue = sendQueue;
+        if (queue != null) {
+            queue.flush();
+        }
+    }
+
     public void closeConnection() {
         ChannelHelper.close(channel);
     }
@@ -22,6 +22,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdMap;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,7 +39,7 @@ import java.util.Map;
 public class Potions {
 
     private static final Map<String, Potion> POTION_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, Potion>> POTION_ID_MAP = new HashMap<>();
+    private static final VersionedIdMap<Potion> POTION_ID_MAP = new VersionedIdMap<>();
 
     // initial mappings based upon https://minecraft.wiki/w/Potion#History
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("item/item_potion_mappings");
@@ -74,8 +75,7 @@ public class Potions {
 
     public static @Nullable Potion getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, Potion> idMap = POTION_ID_MAP.get((byte) index);
-        return idMap.get(id);
+        return POTION_ID_MAP.get(index, id);
     }
 
     public static final Potion WATER = define("water");
@@ -0,0 +1,138 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.stream;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+
+import java.nio.ByteOrder;
+
+/**
+ * A {@link NetStreamInput} reading straight from a netty buffer, instead of a copied byte array.
+ * Reading advances the reader index of the buffer.
+ * <p>
+ * Chunk sections read from this input keep a slice of the buffer to write themselves back unchanged,
+ * so the buffer should not be reused for other data while they are in use.
+ */
+public class ByteBufNetStreamInput extends NetStreamInput {
+    private final Object buffer;
+
+    /**
+     * @param buffer the netty buffer to read from, usually a slice of the packet buffer
+     */
+    public ByteBufNetStreamInput(Object buffer) {
+        super(null);
+        this.buffer = buffer;
+    }
+
+    public Object getBuffer() {
+        return this.buffer;
+    }
+
+    @Override
+    public int read() {
+        return ByteBufHelper.isReadable(this.buffer) ? ByteBufHelper.readUnsignedByte(this.buffer) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int readable = ByteBufHelper.readableBytes(this.buffer);
+        if (readable == 0) {
+            return -1;
+        }
+        int count = Math.min(len, readable);
+        ByteBufHelper.readBytes(this.buffer, b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.min(Math.max(n, 0L), ByteBufHelper.readableBytes(this.buffer));
+        ByteBufHelper.skipBytes(this.buffer, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return ByteBufHelper.readableBytes(this.buffer);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public byte readByte() {
+        return ByteBufHelper.readByte(this.buffer);
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return ByteBufHelper.readUnsignedByte(this.buffer);
+    }
+
+    @Override
+    public short readShort() {
+        return ByteBufHelper.readShort(this.buffer);
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return ByteBufHelper.readUnsignedShort(this.buffer);
+    }
+
+    @Override
+    public int readInt() {
+        return ByteBufHelper.readInt(this.buffer);
+    }
+
+    @Override
+    public long readLong() {
+        return ByteBufHelper.readLong(this.buffer);
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Array cannot have length less than 0.");
+        }
+        byte[] b = new byte[length];
+        ByteBufHelper.readBytes(this.buffer, b);
+        return b;
+    }
+
+    @Override
+    public void skipBytes(int length) {
+        ByteBufHelper.skipBytes(this.buffer, length);
+    }
+
+    @Override
+    public int readLongs(long[] l, int offset, int length) {
+        int count = Math.min(length, ByteBufHelper.readableBytes(this.buffer) >> 3);
+        if (count > 0) {
+            int bytes = count << 3;
+            ByteBufHelper.nioBuffer(this.buffer, ByteBufHelper.readerIndex(this.buffer), bytes)
+                    .order(ByteOrder.BIG_ENDIAN).asLongBuffer().get(l, offset, count);
+            ByteBufHelper.skipBytes(this.buffer, bytes);
+        }
+        return count;
+    }
+}
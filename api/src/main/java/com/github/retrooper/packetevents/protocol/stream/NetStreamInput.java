@@ -108,8 +108,7 @@ public class NetStreamInput extends FilterInputStream {
 
 
     public long readLong() {
-        byte[] read = this.readBytes(8);
-        return ((long) read[0] << 56) + ((long) (read[1] & 255) << 48) + ((long) (read[2] & 255) << 40) + ((long) (read[3] & 255) << 32) + ((long) (read[4] & 255) << 24) + ((read[5] & 255) << 16) + ((read[6] & 255) << 8) + ((read[7] & 255) << 0);
+        return ((long) this.readInt() << 32) | (this.readInt() & 0xFFFFFFFFL);
     }
 
 
@@ -183,6 +182,24 @@ public class NetStreamInput extends FilterInputStream {
     }
 
 
+    public void skipBytes(int length) {
+        int n = 0;
+        while (n < length) {
+            long count = 0;
+            try {
+                count = this.skip(length - n);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (count <= 0) {
+                throw new IllegalStateException();
+            }
+
+            n += (int) count;
+        }
+    }
+
+
     public short[] readShorts(int length) {
         if (length < 0) {
             throw new IllegalArgumentException("Array cannot have length less than 0.");
@@ -18,7 +18,9 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18;
 
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -26,6 +28,7 @@ import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalett
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class Chunk_v1_18 implements BaseChunk {
     private static final int AIR = 0;
@@ -35,6 +38,8 @@ public class Chunk_v1_18 implements BaseChunk {
     final DataPalette chunkData;
     private @NotNull
     final DataPalette biomeData;
+    // A copy of the bytes this section was read from, written back as long as the section is unchanged
+    private byte @Nullable [] encoded;
 
     public Chunk_v1_18() {
         this(0, DataPalette.createForChunk(), DataPalette.createForBiome());
@@ -47,19 +52,53 @@ public class Chunk_v1_18 implements BaseChunk {
     }
 
     public static Chunk_v1_18 read(NetStreamInput in)  {
+        Object buffer = in instanceof ByteBufNetStreamInput ? ((ByteBufNetStreamInput) in).getBuffer() : null;
+        int start = buffer != null ? ByteBufHelper.readerIndex(buffer) : 0;
+
         int blockCount = in.readShort();
 
         DataPalette chunkPalette = DataPalette.read(in, PaletteType.CHUNK);
         DataPalette biomePalette = DataPalette.read(in, PaletteType.BIOME);
-        return new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
+        Chunk_v1_18 chunk = new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
+        if (buffer != null) {
+            // copied, as the section may outlive the buffer it was read from
+            byte[] encoded = new byte[ByteBufHelper.readerIndex(buffer) - start];
+            ByteBufHelper.getBytes(buffer, start, encoded);
+            chunk.encoded = encoded;
+        }
+        return chunk;
+    }
+
+    public static void skip(NetStreamInput in) {
+        in.readShort();
+        DataPalette.skip(in, PaletteType.CHUNK);
+        DataPalette.skip(in, PaletteType.BIOME);
     }
 
     public static void write(NetStreamOutput out, Chunk_v1_18 section)  {
+        byte[] encoded = section.getEncoded();
+        if (encoded != null) {
+            out.writeBytes(encoded);
+            return;
+        }
         out.writeShort(section.blockCount);
         DataPalette.write(out, section.chunkData);
         DataPalette.write(out, section.biomeData);
     }
 
+    /**
+     * Gets the bytes this section was read from, as long as it is unchanged since then.
+     * They can be written to another buffer as is, instead of encoding the section again.
+     *
+     * @return the bytes this section was read from, or null if it has to be encoded again
+     */
+    public byte @Nullable [] getEncoded() {
+        if (this.encoded != null && !this.chunkData.isModified() && !this.biomeData.isModified()) {
+            return this.encoded;
+        }
+        return null;
+    }
+
     @Override
     public int getBlockId(int x, int y, int z) {
         return this.chunkData.get(x, y, z);
@@ -86,6 +125,7 @@ public class Chunk_v1_18 implements BaseChunk {
 
     public void setBlockCount(int blockCount) {
         this.blockCount = blockCount;
+        this.encoded = null;
     }
 
     public @NotNull DataPalette getChunkData() {
@@ -35,6 +35,11 @@ public class DataPalette {
     public BaseStorage storage;
     public final PaletteType paletteType;
 
+    // The state as read, used to tell whether this palette changed since
+    private @Nullable Palette readPalette;
+    private @Nullable BaseStorage readStorage;
+    private int readPaletteSize;
+
     public static DataPalette createForChunk() {
         return createEmpty(PaletteType.CHUNK);
     }
@@ -70,7 +75,31 @@ public class DataPalette {
             storage = null;
         }
 
-        return new DataPalette(palette, storage, paletteType);
+        DataPalette dataPalette = new DataPalette(palette, storage, paletteType);
+        dataPalette.readPalette = palette;
+        dataPalette.readStorage = storage;
+        dataPalette.readPaletteSize = palette.size();
+        return dataPalette;
+    }
+
+    /**
+     * Skips over a palette without decoding it.
+     *
+     * @param in          the input to skip in
+     * @param paletteType the palette type, as passed to {@link #read(NetStreamInput, PaletteType)}
+     */
+    public static void skip(NetStreamInput in, PaletteType paletteType) {
+        int bitsPerEntry = in.readByte();
+        if (bitsPerEntry == 0) {
+            in.readVarInt(); // singleton value
+        } else if (bitsPerEntry <= paletteType.getMaxBitsPerEntry()) {
+            int paletteLength = in.readVarInt();
+            for (int i = 0; i < paletteLength; i++) {
+                in.readVarInt();
+            }
+        }
+        int length = in.readVarInt();
+        in.skipBytes(length * 8);
     }
 
     public static void write(NetStreamOutput out, DataPalette palette) {
@@ -110,6 +139,21 @@ public class DataPalette {
         return new DataPalette(palette, storage, PaletteType.CHUNK);
     }
 
+    /**
+     * Whether this palette may differ from how it was read.
+     * Palettes that weren't read from a buffer are always considered modified.
+     * Changes made directly to the array of the storage are not tracked.
+     *
+     * @return true if this palette has to be encoded again
+     */
+    public boolean isModified() {
+        return this.readPalette == null
+                || this.palette != this.readPalette
+                || this.storage != this.readStorage
+                || this.palette.size() != this.readPaletteSize
+                || this.storage != null && this.storage.isModified();
+    }
+
     public int get(int x, int y, int z) {
         if (storage != null) {
             int id = this.storage.get(index(this.paletteType, x, y, z));
@@ -18,17 +18,30 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.reader.impl;
 
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
 import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.ChunkReader;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 
 import java.util.BitSet;
+import java.util.stream.IntStream;
 
 public class ChunkReader_v1_18 implements ChunkReader {
     @Override
     public BaseChunk[] read(DimensionType dimensionType, BitSet set, BitSet sevenExtendedMask, boolean fullChunk, boolean hasSkyLight, boolean checkForSky, int chunkSize, byte[] data, NetStreamInput dataIn) {
+        if (dataIn instanceof ByteBufNetStreamInput && chunkSize > 1) {
+            PacketEventsSettings settings = PacketEvents.getAPI().getSettings();
+            if (settings.isParallelChunkDecodingEnabled()
+                    && dataIn.available() >= settings.getParallelChunkDecodingThreshold()) {
+                return readParallel((ByteBufNetStreamInput) dataIn, chunkSize);
+            }
+        }
+
         BaseChunk[] chunks = new BaseChunk[chunkSize];
 
         for (int index = 0; index < chunkSize; ++index) {
@@ -37,4 +50,22 @@ public class ChunkReader_v1_18 implements ChunkReader {
 
         return chunks;
     }
+
+    private static BaseChunk[] readParallel(ByteBufNetStreamInput dataIn, int chunkSize) {
+        // Find the section boundaries in one pass, then decode the sections independently
+        Object buffer = dataIn.getBuffer();
+        Object[] sections = new Object[chunkSize];
+        for (int index = 0; index < chunkSize; ++index) {
+            int start = ByteBufHelper.readerIndex(buffer);
+            Chunk_v1_18.skip(dataIn);
+            int length = ByteBufHelper.readerIndex(buffer) - start;
+            ByteBufHelper.readerIndex(buffer, start);
+            sections[index] = ByteBufHelper.readSlice(buffer, length);
+        }
+
+        BaseChunk[] chunks = new BaseChunk[chunkSize];
+        IntStream.range(0, chunkSize).parallel().forEach(index ->
+                chunks[index] = Chunk_v1_18.read(new ByteBufNetStreamInput(sections[index])));
+        return chunks;
+    }
 }
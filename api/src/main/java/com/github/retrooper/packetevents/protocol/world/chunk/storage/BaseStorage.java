@@ -19,6 +19,8 @@
 package com.github.retrooper.packetevents.protocol.world.chunk.storage;
 
 public abstract class BaseStorage {
+    boolean modified;
+
     public abstract long[] getData();
 
     public abstract int getBitsPerEntry();
@@ -28,4 +30,14 @@ public abstract class BaseStorage {
     public abstract int get(int index);
 
     public abstract void set(int index, int value);
+
+    /**
+     * Whether {@link #set(int, int)} was called on this storage.
+     * Changes made directly to the array returned by {@link #getData()} are not tracked.
+     *
+     * @return true if this storage was modified
+     */
+    public boolean isModified() {
+        return modified;
+    }
 }
@@ -128,6 +128,7 @@ public class BitStorage extends BaseStorage {
         int cellIndex = cellIndex(index);
         int bitIndex = bitIndex(index, cellIndex);
         this.data[cellIndex] = this.data[cellIndex] & ~(this.maxValue << bitIndex) | ((long) value & this.maxValue) << bitIndex;
+        this.modified = true;
     }
 
     private int cellIndex(int index) {
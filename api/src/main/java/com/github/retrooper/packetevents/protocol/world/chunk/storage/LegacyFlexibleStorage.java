@@ -83,6 +83,7 @@ public class LegacyFlexibleStorage extends BaseStorage {
             int j1 = this.bitsPerEntry - endBitSubIndex;
             this.data[endIndex] = this.data[endIndex] >>> j1 << j1 | ((long) value & this.maxEntryValue) >> endBitSubIndex;
         }
+        this.modified = true;
     }
 
     @Override
@@ -47,11 +47,14 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.github.retrooper.packetevents.util.adventure.AdventureIndexUtil.indexValueOrThrow;
 
@@ -94,34 +97,36 @@ public class WrappedBlockState {
     }
 
     private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR, new EnumMap<>(StateValue.class), 0, (byte) 0);
-    private static final Map<Byte, Map<String, WrappedBlockState>> BY_STRING = new HashMap<>();
-    private static final Map<Byte, Map<Integer, WrappedBlockState>> BY_ID = new HashMap<>();
-    private static final Map<Byte, Map<WrappedBlockState, String>> INTO_STRING = new HashMap<>();
-    private static final Map<Byte, Map<WrappedBlockState, Integer>> INTO_ID = new HashMap<>();
-    private static final Map<Byte, Map<StateType, WrappedBlockState>> DEFAULT_STATES = new HashMap<>();
-
-    private static final Map<String, String> STRING_UPDATER = new HashMap<>();
+    // the mappings of each index are loaded on first use, and can be unloaded again
+    private static final AtomicReferenceArray<Mappings> MAPPINGS =
+            new AtomicReferenceArray<>(MAPPING_INDEXES[MAPPING_INDEXES.length - 1] + 1);
+    // each index is loaded under its own lock, so loading one version doesn't block the others
+    private static final Object[] LOAD_LOCKS = new Object[MAPPINGS.length()];
 
     static {
-        STRING_UPDATER.put("grass_path", "dirt_path"); // 1.16 -> 1.17
+        for (int i = 0; i < LOAD_LOCKS.length; i++) {
+            LOAD_LOCKS[i] = new Object();
+        }
+    }
 
-        // Try to reduce memory footprint by re-using hashmaps when they are equal
-        // We do this by setting the key to the NBTCompound of the data and the value to the data
-        // this.data = cache.computeIfAbsent(dataContent, (key) -> { // NBTCompound to data });
-        // This will get an equal value if present, otherwise it will compute the value
-        // Once this is done, we remove this cache to save memory
-        // A HashMap is used instead of another data type because a hashmap is o(1)
-        //
-        // 6160 total combinations, last updated with 1.20.5
-        // This brings total memory usage from 62 MB to 34 MB, a 28 MB reduction
-        // Using a HashMap reduces memory usage to less than a megabyte, I can't get precise numbers because it is hard to see on a heapdump
-        Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache = new HashMap<>(6160, 70);
+    private static final Map<String, String> STRING_UPDATER = new HashMap<>();
 
-        loadLegacy(cache);
-        loadModern(cache);
+    // Try to reduce memory footprint by re-using hashmaps when they are equal
+    // We do this by setting the key to the NBTCompound of the data and the value to the data
+    // this.data = cache.computeIfAbsent(dataContent, (key) -> { // NBTCompound to data });
+    // This will get an equal value if present, otherwise it will compute the value
+    // Once a version is loaded, we remove this cache to save memory
+    // A HashMap is used instead of another data type because a hashmap is o(1)
+    //
+    // 6160 total combinations, last updated with 1.20.5
+    // This brings total memory usage from 62 MB to 34 MB, a 28 MB reduction
+    // Using a HashMap reduces memory usage to less than a megabyte, I can't get precise numbers because it is hard to see on a heapdump
+    private static final int DATA_CACHE_SIZE = 6160;
+    // Only the property maps are kept, so versions loaded later share the hashmaps of versions loaded before
+    private static final Map<Map<StateValue, Object>, Map<StateValue, Object>> PROPERTY_MAPS = new ConcurrentHashMap<>(DATA_CACHE_SIZE);
 
-        cache.clear();
-        cache = null;
+    static {
+        STRING_UPDATER.put("grass_path", "dirt_path"); // 1.16 -> 1.17
     }
 
     int globalID;
@@ -242,7 +247,7 @@ public class WrappedBlockState {
     public static WrappedBlockState getByGlobalId(ClientVersion version, int globalID, boolean clone) {
         if (globalID == 0) return AIR; // Hardcode for performance
         byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_ID.get(mappingsIndex).getOrDefault(globalID, AIR);
+        final WrappedBlockState state = getMappings(mappingsIndex).getById(globalID);
         return clone ? state.clone() : state;
     }
 
@@ -259,7 +264,7 @@ public class WrappedBlockState {
     @NotNull
     public static WrappedBlockState getByString(ClientVersion version, String string, boolean clone) {
         byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_STRING.get(mappingsIndex).getOrDefault(string.replace("minecraft:", ""), AIR);
+        final WrappedBlockState state = getMappings(mappingsIndex).getByString(string.replace("minecraft:", ""));
         return clone ? state.clone() : state;
     }
 
@@ -277,7 +282,7 @@ public class WrappedBlockState {
     public static WrappedBlockState getDefaultState(ClientVersion version, StateType type, boolean clone) {
         if (type == StateTypes.AIR) return AIR;
         byte mappingsIndex = getMappingsIndex(version);
-        WrappedBlockState state = DEFAULT_STATES.get(mappingsIndex).get(type);
+        WrappedBlockState state = getMappings(mappingsIndex).defaultStates.get(type);
         if (state == null) {
             PacketEvents.getAPI().getLogger().config("Default state for " + type.getName() + " is null. Returning AIR");
             return AIR;
@@ -289,12 +294,42 @@ public class WrappedBlockState {
         return MAPPING_INDEXES[version.ordinal()];
     }
 
-    private static void loadLegacy(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
-        Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
-        Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
-        Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
-        Map<WrappedBlockState, String> stateToStringMap = new HashMap<>();
-        Map<StateType, WrappedBlockState> stateTypeToBlockStateMap = new HashMap<>();
+    private static Mappings getMappings(byte mappingsIndex) {
+        Mappings mappings = MAPPINGS.get(mappingsIndex);
+        return mappings != null ? mappings : loadMappings(mappingsIndex);
+    }
+
+    private static Mappings loadMappings(byte mappingsIndex) {
+        synchronized (LOAD_LOCKS[mappingsIndex]) {
+            Mappings mappings = MAPPINGS.get(mappingsIndex);
+            if (mappings == null) {
+                mappings = mappingsIndex == LEGACY_MAPPING_INDEX ? loadLegacy() : loadModern(mappingsIndex);
+                MAPPINGS.set(mappingsIndex, mappings);
+            }
+            return mappings;
+        }
+    }
+
+    /**
+     * Unloads the block state mappings used by the given version, they will be loaded
+     * again once they are needed. Existing block states of that version stay valid.
+     */
+    @ApiStatus.Internal
+    public static void unloadMappings(ClientVersion version) {
+        byte mappingsIndex = getMappingsIndex(version);
+        synchronized (LOAD_LOCKS[mappingsIndex]) {
+            MAPPINGS.set(mappingsIndex, null);
+        }
+    }
+
+    private static Map<StateValue, Object> internProperties(Map<StateValue, Object> properties) {
+        Map<StateValue, Object> interned = PROPERTY_MAPS.putIfAbsent(properties, properties);
+        return interned != null ? interned : properties;
+    }
+
+    private static Mappings loadLegacy() {
+        Mappings mappings = new Mappings();
+        Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache = new HashMap<>(DATA_CACHE_SIZE, 70);
 
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress("mappings/block/legacy_block_mappings")) {
             compound.skipOne(); // Skip version
@@ -360,37 +395,31 @@ public class WrappedBlockState {
                             dataString = "[" + dataStringBuilder.substring(0, dataStringBuilder.length() - 1) + "]";
                         }
 
-                        return new AbstractMap.SimpleEntry<>(dataMap, dataString);
+                        return new AbstractMap.SimpleEntry<>(internProperties(dataMap), dataString);
                     });
 
                     String fullString = entry.getKey() + dataEntry.getValue();
                     WrappedBlockState state = new WrappedBlockState(type, dataEntry.getKey(), combinedID, (byte) 0);
 
-                    stateByIdMap.put(combinedID, state);
-                    stateToStringMap.put(state, fullString);
-                    stateToIdMap.put(state, combinedID);
-
                     // We want the first with this ID, to prevent invalid blocks that work with vanilla, but may
                     // cause other things handling data to have issues, such as air with a byte value of 1
                     // (this matters as doors read bytes if they are a half without caring what type the other block is)
-                    stateByStringMap.putIfAbsent(fullString, state);
+                    mappings.add(combinedID, state, fullString);
 
                     // This works because the first of a type is always the default block, by chance
-                    stateTypeToBlockStateMap.putIfAbsent(type, state);
+                    mappings.defaultStates.putIfAbsent(type, state);
                 }
             }
 
-            BY_ID.put(LEGACY_MAPPING_INDEX, stateByIdMap);
-            INTO_ID.put(LEGACY_MAPPING_INDEX, stateToIdMap);
-            BY_STRING.put(LEGACY_MAPPING_INDEX, stateByStringMap);
-            INTO_STRING.put(LEGACY_MAPPING_INDEX, stateToStringMap);
-            DEFAULT_STATES.put(LEGACY_MAPPING_INDEX, stateTypeToBlockStateMap);
+            mappings.build();
+            return mappings;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load legacy block mappings", e);
         }
     }
 
-    private static void loadModern(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
+    private static Mappings loadModern(byte mappingsIndex) {
+        Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache = new HashMap<>(DATA_CACHE_SIZE, 70);
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress("mappings/block/modern_block_mappings")) {
             compound.skipOne(); // Skip version
 
@@ -398,12 +427,12 @@ public class WrappedBlockState {
                 ClientVersion version = ClientVersion.valueOf(versionEntry.getKey());
                 byte mappingIndex = getMappingsIndex(version);
                 SequentialNBTReader.List list = (SequentialNBTReader.List) versionEntry.getValue();
+                if (mappingIndex != mappingsIndex) {
+                    list.skip();
+                    continue;
+                }
 
-                Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
-                Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
-                Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
-                Map<WrappedBlockState, String> stateToStringMap = new HashMap<>();
-                Map<StateType, WrappedBlockState> stateTypeToBlockStateMap = new HashMap<>();
+                Mappings mappings = new Mappings();
 
                 int id = 0;
                 for (NBT e : list) {
@@ -482,35 +511,30 @@ public class WrappedBlockState {
                                 dataString = "[" + dataStringBuilder.substring(0, dataStringBuilder.length() - 1) + "]";
                             }
 
-                            return new AbstractMap.SimpleEntry<>(dataMap, dataString);
+                            return new AbstractMap.SimpleEntry<>(internProperties(dataMap), dataString);
                         });
 
                         String fullString = typeString + dataEntry.getValue();
                         WrappedBlockState state = new WrappedBlockState(type, dataEntry.getKey(), id, mappingIndex);
 
                         if (defaultIdx == index) {
-                            stateTypeToBlockStateMap.put(type, state);
+                            mappings.defaultStates.put(type, state);
                         }
 
-                        stateByStringMap.put(fullString, state);
-                        stateByIdMap.put(id, state);
-                        stateToStringMap.put(state, fullString);
-                        stateToIdMap.put(state, id);
+                        mappings.add(id, state, fullString);
 
                         id++;
                         index++;
                     }
                 }
 
-                BY_ID.put(mappingIndex, stateByIdMap);
-                INTO_ID.put(mappingIndex, stateToIdMap);
-                BY_STRING.put(mappingIndex, stateByStringMap);
-                INTO_STRING.put(mappingIndex, stateToStringMap);
-                DEFAULT_STATES.put(mappingIndex, stateTypeToBlockStateMap);
+                mappings.build();
+                return mappings;
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to load modern block mappings", e);
         }
+        throw new IllegalStateException("No block mappings found for mappings index " + mappingsIndex);
     }
 
     @Override
@@ -1451,7 +1475,7 @@ public class WrappedBlockState {
         int oldGlobalID = globalID;
         globalID = getGlobalIdNoCache();
         if (globalID == -1) { // -1 maps to no block as negative ID are impossible
-            WrappedBlockState blockState = BY_ID.get(mappingsIndex).getOrDefault(oldGlobalID, AIR).clone();
+            WrappedBlockState blockState = getMappings(mappingsIndex).getById(oldGlobalID).clone();
             this.type = blockState.type;
             this.globalID = blockState.globalID;
             this.data = new HashMap<>(blockState.data);
@@ -1495,13 +1519,113 @@ public class WrappedBlockState {
      * Internal method for determining if the block state is still valid
      */
     private int getGlobalIdNoCache() {
-        return INTO_ID.get(mappingsIndex).getOrDefault(this, -1);
+        return getMappings(mappingsIndex).getId(this);
     }
 
     @Override
     public String toString() {
-        return INTO_STRING.get(mappingsIndex).get(this);
+        return getMappings(mappingsIndex).getString(this);
     }
 
-    public static void ensureLoad() { /**/ }
+    /**
+     * Loads the block state mappings of the server version ahead of time.
+     */
+    public static void ensureLoad() {
+        getMappings(getMappingsIndex(PacketEvents.getAPI().getServerManager().getVersion().toClientVersion()));
+    }
+
+    /**
+     * The block states of a single mappings index, stored in arrays indexed by global id.
+     * States are found by string or by value through open addressing tables of ids,
+     * which avoids the boxed keys and entry objects of hash maps.
+     */
+    private static final class Mappings {
+
+        private final Map<StateType, WrappedBlockState> defaultStates = new HashMap<>();
+        private WrappedBlockState[] states = new WrappedBlockState[1024];
+        private String[] strings = new String[1024];
+        // ids in the order they were added, only needed until the tables are built
+        private int[] order = new int[1024];
+        private int count;
+        private int length;
+        // id + 1 for every used slot, 0 for empty slots
+        private int[] stringTable;
+        private int[] stateTable;
+        private int mask;
+
+        void add(int id, WrappedBlockState state, String string) {
+            if (id >= this.states.length) {
+                int capacity = Math.max(id + 1, this.states.length * 2);
+                this.states = Arrays.copyOf(this.states, capacity);
+                this.strings = Arrays.copyOf(this.strings, capacity);
+            }
+            if (this.count == this.order.length) {
+                this.order = Arrays.copyOf(this.order, this.count * 2);
+            }
+            this.states[id] = state;
+            this.strings[id] = string;
+            this.order[this.count++] = id;
+            this.length = Math.max(this.length, id + 1);
+        }
+
+        void build() {
+            this.states = Arrays.copyOf(this.states, this.length);
+            this.strings = Arrays.copyOf(this.strings, this.length);
+            int capacity = Integer.highestOneBit(Math.max(this.count, 1) * 2) << 1;
+            this.stringTable = new int[capacity];
+            this.stateTable = new int[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < this.count; i++) {
+                int id = this.order[i];
+                // the first state with a string and the last id of a state are kept
+                int slot = findString(this.strings[id]);
+                if (this.stringTable[slot] == 0) {
+                    this.stringTable[slot] = id + 1;
+                }
+                this.stateTable[findState(this.states[id])] = id + 1;
+            }
+            this.order = null;
+        }
+
+        private int findString(String string) {
+            int slot = spread(string.hashCode()) & this.mask;
+            int entry;
+            while ((entry = this.stringTable[slot]) != 0 && !this.strings[entry - 1].equals(string)) {
+                slot = (slot + 1) & this.mask;
+            }
+            return slot;
+        }
+
+        private int findState(WrappedBlockState state) {
+            int slot = spread(state.hashCode()) & this.mask;
+            int entry;
+            while ((entry = this.stateTable[slot]) != 0 && !this.states[entry - 1].equals(state)) {
+                slot = (slot + 1) & this.mask;
+            }
+            return slot;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        WrappedBlockState getById(int id) {
+            WrappedBlockState state = id >= 0 && id < this.states.length ? this.states[id] : null;
+            return state != null ? state : AIR;
+        }
+
+        WrappedBlockState getByString(String string) {
+            int entry = this.stringTable[findString(string)];
+            return entry != 0 ? this.states[entry - 1] : AIR;
+        }
+
+        int getId(WrappedBlockState state) {
+            return this.stateTable[findState(state)] - 1;
+        }
+
+        String getString(WrappedBlockState state) {
+            int id = getId(state);
+            return id != -1 ? this.strings[id] : null;
+        }
+    }
 }
@@ -18,6 +18,7 @@
 
 package com.github.retrooper.packetevents.settings;
 
+import com.github.retrooper.packetevents.manager.protocol.PacketSendQueue;
 import com.github.retrooper.packetevents.util.TimeStampMode;
 import org.jetbrains.annotations.ApiStatus;
 
@@ -40,6 +41,16 @@ public class PacketEventsSettings {
     private boolean fullStackTraceEnabled = false;
     private boolean kickOnPacketExceptionEnabled = true;
     private boolean kickIfTerminated = true;
+    private boolean parallelChunkDecoding = false;
+    private int parallelChunkDecodingThreshold = 16384;
+    private boolean nbtNameInterning = false;
+    private boolean lazyNBTDecoding = false;
+    private int batchFlushPacketThreshold = 0;
+    private int batchFlushByteThreshold = 65536;
+    private int sendQueueDrainThreshold = 64;
+    private boolean sendQueueTickAligned = false;
+    private PacketSendQueue.BackPressure sendQueueBackPressure = PacketSendQueue.BackPressure.COALESCE;
+    private long sendQueueBlockTimeout = 50L;
     private Function<String, InputStream> resourceProvider = path -> PacketEventsSettings.class
             .getClassLoader()
             .getResourceAsStream(path);
@@ -165,6 +176,127 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if PacketEvents should decode the sections of large chunk packets
+     * on multiple threads. This only applies to 1.18+ chunk data.
+     *
+     * @param parallelChunkDecoding Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings parallelChunkDecoding(boolean parallelChunkDecoding) {
+        this.parallelChunkDecoding = parallelChunkDecoding;
+        return this;
+    }
+
+    /**
+     * The minimum size of the section data of a chunk packet, in bytes,
+     * for its sections to be decoded in parallel.
+     *
+     * @param parallelChunkDecodingThreshold Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings parallelChunkDecodingThreshold(int parallelChunkDecodingThreshold) {
+        this.parallelChunkDecodingThreshold = parallelChunkDecodingThreshold;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should share the String instances of
+     * NBT compound keys it reads, instead of creating new ones for every tag.
+     *
+     * @param nbtNameInterning Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings nbtNameInterning(boolean nbtNameInterning) {
+        this.nbtNameInterning = nbtNameInterning;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should decode the entries of NBT compounds in packets
+     * only once they are accessed. Unmodified compounds are written back as their original bytes.
+     *
+     * @param lazyNBTDecoding Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings lazyNBTDecoding(boolean lazyNBTDecoding) {
+        this.lazyNBTDecoding = lazyNBTDecoding;
+        return this;
+    }
+
+    /**
+     * The amount of packets a packet batch may write before it flushes early.
+     * Zero or less means batches only flush once they are done.
+     *
+     * @param batchFlushPacketThreshold Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings batchFlushPacketThreshold(int batchFlushPacketThreshold) {
+        this.batchFlushPacketThreshold = batchFlushPacketThreshold;
+        return this;
+    }
+
+    /**
+     * The amount of bytes a packet batch may write before it flushes early.
+     * Zero or less means batches only flush once they are done.
+     * The default matches the high water mark of netty channels.
+     *
+     * @param batchFlushByteThreshold Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings batchFlushByteThreshold(int batchFlushByteThreshold) {
+        this.batchFlushByteThreshold = batchFlushByteThreshold;
+        return this;
+    }
+
+    /**
+     * The amount of packets in a send queue at which it is drained right away,
+     * instead of waiting for the next tick or the already scheduled drain.
+     *
+     * @param sendQueueDrainThreshold Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings sendQueueDrainThreshold(int sendQueueDrainThreshold) {
+        this.sendQueueDrainThreshold = sendQueueDrainThreshold;
+        return this;
+    }
+
+    /**
+     * This decides if send queues should be drained on every server tick, instead of
+     * as soon as the first packet is queued. This only applies to platforms with ticks,
+     * and can be changed at runtime.
+     *
+     * @param sendQueueTickAligned Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings sendQueueTickAligned(boolean sendQueueTickAligned) {
+        this.sendQueueTickAligned = sendQueueTickAligned;
+        return this;
+    }
+
+    /**
+     * This decides what send queues do with new packets while the channel is not writable.
+     *
+     * @param sendQueueBackPressure Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings sendQueueBackPressure(PacketSendQueue.BackPressure sendQueueBackPressure) {
+        this.sendQueueBackPressure = sendQueueBackPressure;
+        return this;
+    }
+
+    /**
+     * The maximum time in milliseconds a thread waits for the channel to become writable,
+     * when send queues block on back pressure.
+     *
+     * @param sendQueueBlockTimeout Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings sendQueueBlockTimeout(long sendQueueBlockTimeout) {
+        this.sendQueueBlockTimeout = sendQueueBlockTimeout;
+        return this;
+    }
+
     /**
      * Should the packet listeners be read only?
      *
@@ -174,6 +306,96 @@ public class PacketEventsSettings {
         return defaultReencode;
     }
 
+    /**
+     * Should we decode the sections of large chunk packets in parallel?
+     *
+     * @return Getter for {@link #parallelChunkDecoding}
+     */
+    public boolean isParallelChunkDecodingEnabled() {
+        return parallelChunkDecoding;
+    }
+
+    /**
+     * The minimum section data size for parallel chunk decoding.
+     *
+     * @return Getter for {@link #parallelChunkDecodingThreshold}
+     */
+    public int getParallelChunkDecodingThreshold() {
+        return parallelChunkDecodingThreshold;
+    }
+
+    /**
+     * Should we share the names of NBT compound keys we read?
+     *
+     * @return Getter for {@link #nbtNameInterning}
+     */
+    public boolean isNBTNameInterningEnabled() {
+        return nbtNameInterning;
+    }
+
+    /**
+     * How many packets may a packet batch write before flushing?
+     *
+     * @return Getter for {@link #batchFlushPacketThreshold}
+     */
+    public int getBatchFlushPacketThreshold() {
+        return batchFlushPacketThreshold;
+    }
+
+    /**
+     * How many bytes may a packet batch write before flushing?
+     *
+     * @return Getter for {@link #batchFlushByteThreshold}
+     */
+    public int getBatchFlushByteThreshold() {
+        return batchFlushByteThreshold;
+    }
+
+    /**
+     * How many queued packets make a send queue drain right away?
+     *
+     * @return Getter for {@link #sendQueueDrainThreshold}
+     */
+    public int getSendQueueDrainThreshold() {
+        return sendQueueDrainThreshold;
+    }
+
+    /**
+     * Should send queues be drained on every tick?
+     *
+     * @return Getter for {@link #sendQueueTickAligned}
+     */
+    public boolean isSendQueueTickAligned() {
+        return sendQueueTickAligned;
+    }
+
+    /**
+     * What should send queues do while the channel is not writable?
+     *
+     * @return Getter for {@link #sendQueueBackPressure}
+     */
+    public PacketSendQueue.BackPressure getSendQueueBackPressure() {
+        return sendQueueBackPressure;
+    }
+
+    /**
+     * How long may send queues block on back pressure?
+     *
+     * @return Getter for {@link #sendQueueBlockTimeout}
+     */
+    public long getSendQueueBlockTimeout() {
+        return sendQueueBlockTimeout;
+    }
+
+    /**
+     * Should we decode NBT compounds lazily?
+     *
+     * @return Getter for {@link #lazyNBTDecoding}
+     */
+    public boolean isLazyNBTDecodingEnabled() {
+        return lazyNBTDecoding;
+    }
+
     /**
      * Should we check for updates?
      *
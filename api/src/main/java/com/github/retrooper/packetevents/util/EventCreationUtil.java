@@ -22,39 +22,53 @@ import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.simple.*;
 import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.Nullable;
 
 public class EventCreationUtil {
     public static PacketReceiveEvent createReceiveEvent(Object channel, User user, Object player, Object buffer,
                                                         boolean autoProtocolTranslation) throws PacketProcessException {
+        return createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, null);
+    }
+
+    public static PacketReceiveEvent createReceiveEvent(Object channel, User user, Object player, Object buffer,
+                                                        boolean autoProtocolTranslation,
+                                                        @Nullable PacketTypeCommon packetType) throws PacketProcessException {
         switch (user.getDecoderState()) {
             case HANDSHAKING:
-                return new PacketHandshakeReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketHandshakeReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case STATUS:
-                return new PacketStatusReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketStatusReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case LOGIN:
-                return new PacketLoginReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketLoginReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case PLAY:
-                return new PacketPlayReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketPlayReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case CONFIGURATION:
-                return new PacketConfigReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketConfigReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
         }
         throw new RuntimeException("Unknown connection state " + user.getDecoderState() + "!");
     }
 
     public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
-                                                  boolean autoProtocolTranslation) throws PacketProcessException{
+                                                  boolean autoProtocolTranslation) throws PacketProcessException {
+        return createSendEvent(channel, user, player, buffer, autoProtocolTranslation, null);
+    }
+
+    public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
+                                                  boolean autoProtocolTranslation,
+                                                  @Nullable PacketTypeCommon packetType) throws PacketProcessException {
         switch (user.getEncoderState()) {
             case HANDSHAKING:
-                return new PacketHandshakeSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketHandshakeSendEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case STATUS:
-                return new PacketStatusSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketStatusSendEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case LOGIN:
-                return new PacketLoginSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketLoginSendEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case PLAY:
-                return new PacketPlaySendEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketPlaySendEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
             case CONFIGURATION:
-                return new PacketConfigSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+                return new PacketConfigSendEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
         }
         throw new RuntimeException("Unknown connection state " + user.getEncoderState() + "!");
     }
@@ -25,11 +25,18 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
 import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.mappings.SynchronizedRegistriesHandler;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 
 public final class PacketEventsImplHelper {
 
@@ -47,6 +54,45 @@ public final class PacketEventsImplHelper {
         }
     }
 
+    /**
+     * Peeks the packet ID of the buffer and checks whether any registered listener is interested in this packet.
+     * If this returns false, the buffer can be passed on untouched, without creating a packet event.
+     * The reader index of the buffer is not modified.
+     *
+     * @return false if no listener would receive this packet
+     */
+    public static boolean hasListeners(User user, Object buffer, PacketSide side, boolean autoProtocolTranslation) {
+        PacketTypeCommon packetType = resolvePacketType(user, buffer, side, autoProtocolTranslation);
+        return hasListeners(packetType);
+    }
+
+    /**
+     * Peeks the packet ID of the buffer and maps it to its packet type, without modifying the reader index.
+     * The result can be passed on to the event creation, so the packet type isn't looked up twice.
+     *
+     * @return the packet type, or null if the packet ID is malformed or unknown
+     */
+    public static @Nullable PacketTypeCommon resolvePacketType(User user, Object buffer, PacketSide side,
+                                                               boolean autoProtocolTranslation) {
+        int packetId = ByteBufHelper.getVarInt(buffer, ByteBufHelper.readerIndex(buffer));
+        if (packetId == -1) {
+            return null;
+        }
+        ClientVersion version;
+        if (autoProtocolTranslation || user.getClientVersion() == null) {
+            version = PacketEvents.getAPI().getServerManager().getVersion().toClientVersion();
+        } else {
+            version = user.getClientVersion().toServerVersion().toClientVersion();
+        }
+        ConnectionState state = side == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+        return PacketType.getById(side, state, version, packetId);
+    }
+
+    private static boolean hasListeners(@Nullable PacketTypeCommon packetType) {
+        // Malformed and unknown packets still go through the event creation, which is responsible for reporting them
+        return packetType == null || PacketEvents.getAPI().getEventManager().hasListeners(packetType);
+    }
+
     public static @Nullable PacketSendEvent handleClientBoundPacket(
             Object channel, User user, Object player, Object buffer,
             boolean autoProtocolTranslation
@@ -54,9 +100,13 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        PacketTypeCommon packetType = resolvePacketType(user, buffer, PacketSide.SERVER, autoProtocolTranslation);
+        if (!hasListeners(packetType)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
         int processIndex = ByteBufHelper.readerIndex(buffer);
         PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> {
             ByteBufHelper.readerIndex(buffer, processIndex);
@@ -94,9 +144,13 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        PacketTypeCommon packetType = resolvePacketType(user, buffer, PacketSide.CLIENT, autoProtocolTranslation);
+        if (!hasListeners(packetType)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
-        PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+        PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation, packetType);
         int processIndex = ByteBufHelper.readerIndex(buffer);
         PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> {
             ByteBufHelper.readerIndex(buffer, processIndex);
@@ -125,6 +179,76 @@ public final class PacketEventsImplHelper {
         return packetReceiveEvent;
     }
 
+    /**
+     * Processes a packet for a handler that forwards the buffer it was given, instead of writing it into a new one.
+     * The buffer is only read and its reader index is restored afterwards, so it can be passed on as is.
+     * If a listener used a wrapper, the packet is re-encoded into a buffer from {@code allocator}
+     * and the original buffer is left untouched, as it may be a slice of a larger buffer.
+     * <p>
+     * The caller keeps ownership of the original buffer and has to release it
+     * if anything other than the original buffer is returned.
+     *
+     * @param allocator supplies the buffer for re-encoded packets, only called if a wrapper was used
+     * @return the buffer to forward, which is either the original or a newly allocated buffer,
+     * or null if the packet was cancelled
+     */
+    public static @Nullable Object handleForwardedPacket(
+            Object channel, User user, Object player, Object buffer,
+            PacketSide side, Supplier<Object> allocator
+    ) throws Exception {
+        if (!ByteBufHelper.isReadable(buffer)) {
+            return buffer;
+        }
+        PacketTypeCommon packetType = resolvePacketType(user, buffer, side, false);
+        if (!hasListeners(packetType)) {
+            return buffer;
+        }
+
+        int preProcessIndex = ByteBufHelper.readerIndex(buffer);
+        ProtocolPacketEvent event = side == PacketSide.SERVER
+                ? EventCreationUtil.createSendEvent(channel, user, player, buffer, false, packetType)
+                : EventCreationUtil.createReceiveEvent(channel, user, player, buffer, false, packetType);
+        int processIndex = ByteBufHelper.readerIndex(buffer);
+        PacketEvents.getAPI().getEventManager().callEvent(event, () -> {
+            ByteBufHelper.readerIndex(buffer, processIndex);
+        });
+        Object output = null;
+        if (!event.isCancelled()) {
+            PacketWrapper<?> wrapper = event.getLastUsedWrapper();
+            if (wrapper != null) {
+                //Write the packet into a new buffer, this is the only case where it is copied
+                output = allocator.get();
+                try {
+                    wrapper.buffer = output;
+                    event.setByteBuf(output);
+                    wrapper.writeVarInt(event.getPacketId());
+                    wrapper.write();
+                } catch (Exception exception) {
+                    ByteBufHelper.release(output);
+                    throw exception;
+                }
+            } else {
+                output = buffer;
+            }
+            ByteBufHelper.readerIndex(buffer, preProcessIndex);
+        }
+
+        if (event.hasPostTasks()) {
+            try {
+                for (Runnable task : event.getPostTasks()) {
+                    task.run();
+                }
+            } catch (Exception exception) {
+                // the caller only takes ownership of a returned copy
+                if (output != null && output != buffer) {
+                    ByteBufHelper.release(output);
+                }
+                throw exception;
+            }
+        }
+        return output;
+    }
+
     public static void handleDisconnection(Object channel, @Nullable UUID uuid) {
         synchronized (channel) {
             User user = PacketEvents.getAPI().getProtocolManager().getUser(channel);
@@ -132,6 +256,7 @@ public final class PacketEventsImplHelper {
             if (user != null) {
                 UserDisconnectEvent disconnectEvent = new UserDisconnectEvent(user);
                 PacketEvents.getAPI().getEventManager().callEvent(disconnectEvent);
+                SynchronizedRegistriesHandler.releaseUser(user);
                 PacketEvents.getAPI().getProtocolManager().removeUser(user.getChannel());
             }
 
@@ -0,0 +1,103 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the packetevents handlers on the uncompressed side of the pipeline.
+ * <p>
+ * Servers add their compression handlers once the login compression packet has been written,
+ * which places them between our handlers and the packet codec. Platforms watch for that packet
+ * and move our handlers before the next packet is written. If a packet still reaches our handlers
+ * compressed, it has to be decompressed and compressed again, which is counted here.
+ */
+public final class PipelinePlacement {
+
+    private static final LongAdder RELOCATIONS = new LongAdder();
+    private static final LongAdder RECOMPRESSED_PACKETS = new LongAdder();
+
+    private PipelinePlacement() {
+    }
+
+    /**
+     * Peeks the packet ID of an outgoing buffer, without modifying its reader index.
+     *
+     * @return true if the buffer holds the login packet which enables compression
+     */
+    public static boolean isCompressionPacket(User user, Object buffer, boolean autoProtocolTranslation) {
+        if (user.getEncoderState() != ConnectionState.LOGIN || !ByteBufHelper.isReadable(buffer)) {
+            return false;
+        }
+        int packetId = ByteBufHelper.getVarInt(buffer, ByteBufHelper.readerIndex(buffer));
+        if (packetId == -1) {
+            return false;
+        }
+        ClientVersion version;
+        if (autoProtocolTranslation || user.getClientVersion() == null) {
+            version = PacketEvents.getAPI().getServerManager().getVersion().toClientVersion();
+        } else {
+            version = user.getClientVersion().toServerVersion().toClientVersion();
+        }
+        return PacketType.getById(PacketSide.SERVER, ConnectionState.LOGIN, version, packetId)
+                == PacketType.Login.Server.SET_COMPRESSION;
+    }
+
+    /**
+     * Records that our handlers were moved behind the compression handlers.
+     */
+    public static void recordRelocation() {
+        RELOCATIONS.increment();
+    }
+
+    /**
+     * Records a packet which had to be decompressed and compressed again,
+     * because it reached our handlers before they could be moved.
+     */
+    public static void recordRecompressedPacket() {
+        RECOMPRESSED_PACKETS.increment();
+    }
+
+    /**
+     * @return how often our handlers were moved behind the compression handlers
+     */
+    public static long getRelocations() {
+        return RELOCATIONS.sum();
+    }
+
+    /**
+     * @return how many packets were forced through the decompress and recompress path
+     */
+    public static long getRecompressedPackets() {
+        return RECOMPRESSED_PACKETS.sum();
+    }
+
+    public static void resetMetrics() {
+        RELOCATIONS.reset();
+        RECOMPRESSED_PACKETS.reset();
+    }
+}
@@ -105,6 +105,17 @@ public class MappingHelper {
         return diffs;
     }
 
+    public static <T extends MappedEntity> void registerMapping(TypesBuilder builder, Map<String, T> typeMap, VersionedIdMap<T> typeIdMap, T type) {
+        typeMap.put(type.getName().toString(), type);
+        for (ClientVersion version : builder.getVersions()) {
+            typeIdMap.put(builder.getDataIndex(version), type.getId(version), type);
+        }
+    }
+
+    /**
+     * @deprecated boxes every id, use {@link #registerMapping(TypesBuilder, Map, VersionedIdMap, MappedEntity)}
+     */
+    @Deprecated
     public static  <T extends MappedEntity> void registerMapping(TypesBuilder builder, Map<String, T> typeMap, Map<Byte, Map<Integer, T>> typeIdMap, T type) {
         typeMap.put(type.getName().toString(), type);
         for (ClientVersion version : builder.getVersions()) {
@@ -41,6 +41,7 @@ import com.github.retrooper.packetevents.protocol.mapper.MappedEntity;
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.world.biome.Biome;
@@ -56,6 +57,7 @@ import com.github.retrooper.packetevents.wrapper.configuration.server.WrapperCon
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +70,10 @@ public final class SynchronizedRegistriesHandler {
 
     private static final boolean FORCE_PER_USER_REGISTRIES = Boolean.getBoolean("packetevents.force-per-user-registries");
     private static final Map<ResourceLocation, RegistryEntry<?>> REGISTRY_KEYS = new HashMap<>();
+    // the cache key each user received its registries with, and the number of users per cache key;
+    // once no user is bound to a cache key anymore, its registries are released
+    private static final Map<User, Object> USER_CACHE_KEYS = new HashMap<>();
+    private static final Map<Object, Integer> CACHE_KEY_USERS = new HashMap<>();
 
     static {
         Stream.of(
@@ -113,15 +119,61 @@ public final class SynchronizedRegistriesHandler {
             return;
         }
         SimpleRegistry<?> syncedRegistry;
-        if (FORCE_PER_USER_REGISTRIES || cacheKey == null) {
+        if (FORCE_PER_USER_REGISTRIES) {
             syncedRegistry = registryData.createFromElements(elements, version); // no caching
+        } else if (cacheKey == null) {
+            // not cached for this user, but an identical registry may already be known
+            syncedRegistry = registryData.getOrCreateFromElements(elements, version);
         } else {
-            syncedRegistry = registryData.computeSyncedRegistry(cacheKey, () ->
-                    registryData.createFromElements(elements, version));
+            syncedRegistry = registryData.computeSyncedRegistry(cacheKey, elements, version);
+            bindUser(user, cacheKey);
         }
         user.putRegistry(syncedRegistry);
     }
 
+    private static synchronized void bindUser(User user, Object cacheKey) {
+        Object previousKey = USER_CACHE_KEYS.put(user, cacheKey);
+        if (cacheKey.equals(previousKey)) {
+            return;
+        }
+        CACHE_KEY_USERS.merge(cacheKey, 1, Integer::sum);
+        if (previousKey != null) {
+            // the user switched to another backend server
+            unbindCacheKey(previousKey);
+        }
+    }
+
+    /**
+     * Unbinds the user from the cache key it received its registries with, e.g. once it disconnected.
+     * The cached registries are released if no other user is bound to the same cache key.
+     */
+    public static synchronized void releaseUser(User user) {
+        Object cacheKey = USER_CACHE_KEYS.remove(user);
+        if (cacheKey != null) {
+            unbindCacheKey(cacheKey);
+        }
+    }
+
+    private static void unbindCacheKey(Object cacheKey) {
+        Integer users = CACHE_KEY_USERS.get(cacheKey);
+        if (users == null || users <= 1) {
+            CACHE_KEY_USERS.remove(cacheKey);
+            releaseSyncedRegistries(cacheKey);
+        } else {
+            CACHE_KEY_USERS.put(cacheKey, users - 1);
+        }
+    }
+
+    /**
+     * Drops the synchronized registries cached for the given key, e.g. when a backend server
+     * has been unregistered. Registries still shared with other keys are kept.
+     */
+    public static void releaseSyncedRegistries(Object cacheKey) {
+        for (RegistryEntry<?> entry : REGISTRY_KEYS.values()) {
+            entry.releaseSyncedRegistry(cacheKey);
+        }
+    }
+
     public static void handleLegacyRegistries(
             User user, ClientVersion version,
             NBTCompound registryData
@@ -168,7 +220,10 @@ public final class SynchronizedRegistriesHandler {
         //
         // the key to this cache depends on the platform - it may be a constant value for bukkit servers
         // or some backend server related value for proxy servers
-        private final Map<Object, SimpleRegistry<T>> syncedRegistries = new ConcurrentHashMap<>(2);
+        private final Map<Object, SharedRegistry<T>> syncedRegistries = new ConcurrentHashMap<>(2);
+        // registries by their content, shared between all cache keys which received the same elements;
+        // proxies often have many backend servers sending identical registries
+        private final Map<RegistryContent, SharedRegistry<T>> sharedRegistries = new HashMap<>();
 
         public RegistryEntry(
                 IRegistry<T> baseRegistry,
@@ -179,13 +234,61 @@ public final class SynchronizedRegistriesHandler {
         }
 
         public @Nullable SimpleRegistry<T> getSyncedRegistry(Object key) {
-            return this.syncedRegistries.get(key);
+            SharedRegistry<T> shared = this.syncedRegistries.get(key);
+            return shared == null ? null : shared.registry;
         }
 
+        /**
+         * @deprecated doesn't share registries with identical content, use
+         * {@link #computeSyncedRegistry(Object, List, ClientVersion)}
+         */
+        @Deprecated
         @SuppressWarnings("unchecked")
         public SimpleRegistry<T> computeSyncedRegistry(Object key, Supplier<SimpleRegistry<?>> registry) {
             return this.syncedRegistries.computeIfAbsent(key,
-                    $ -> (SimpleRegistry<T>) registry.get());
+                    $ -> new SharedRegistry<>(null, (SimpleRegistry<T>) registry.get())).registry;
+        }
+
+        public synchronized SimpleRegistry<T> computeSyncedRegistry(
+                Object key, List<RegistryElement> elements, ClientVersion version
+        ) {
+            RegistryContent content = new RegistryContent(elements, version);
+            SharedRegistry<T> current = this.syncedRegistries.get(key);
+            if (current != null && content.equals(current.content)) {
+                return current.registry;
+            }
+            SharedRegistry<T> shared = this.sharedRegistries.get(content);
+            if (shared == null) {
+                shared = new SharedRegistry<>(content, this.createFromElements(elements, version));
+                this.sharedRegistries.put(content, shared);
+            }
+            shared.references++;
+            this.syncedRegistries.put(key, shared);
+            if (current != null) {
+                this.release(current);
+            }
+            return shared.registry;
+        }
+
+        public SimpleRegistry<T> getOrCreateFromElements(List<RegistryElement> elements, ClientVersion version) {
+            SharedRegistry<T> shared;
+            synchronized (this) {
+                shared = this.sharedRegistries.get(new RegistryContent(elements, version));
+            }
+            return shared != null ? shared.registry : this.createFromElements(elements, version);
+        }
+
+        public synchronized void releaseSyncedRegistry(Object key) {
+            SharedRegistry<T> shared = this.syncedRegistries.remove(key);
+            if (shared != null) {
+                this.release(shared);
+            }
+        }
+
+        private void release(SharedRegistry<T> shared) {
+            if (--shared.references <= 0 && shared.content != null) {
+                this.sharedRegistries.remove(shared.content);
+            }
         }
 
         private void handleElement(
@@ -247,4 +350,51 @@ public final class SynchronizedRegistriesHandler {
             return this.baseRegistry.getRegistryKey();
         }
     }
+
+    private static final class SharedRegistry<T extends MappedEntity> {
+
+        private final @Nullable RegistryContent content;
+        private final SimpleRegistry<T> registry;
+        private int references;
+
+        private SharedRegistry(@Nullable RegistryContent content, SimpleRegistry<T> registry) {
+            this.content = content;
+            this.registry = registry;
+        }
+    }
+
+    private static final class RegistryContent {
+
+        private final List<RegistryElement> elements;
+        private final ClientVersion version;
+        private final int hash;
+
+        private RegistryContent(List<RegistryElement> elements, ClientVersion version) {
+            this.elements = new ArrayList<>(elements);
+            this.version = version;
+            // hashed once, without decoding lazy compounds; the elements are only compared if the hashes match
+            int hash = version.hashCode();
+            for (RegistryElement element : this.elements) {
+                NBT data = element.getData();
+                hash = 31 * hash + element.getId().hashCode();
+                hash = 31 * hash + (data == null ? 0 : ByteBufNBTSerializer.contentHash(data));
+            }
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof RegistryContent)) return false;
+            RegistryContent that = (RegistryContent) obj;
+            return this.hash == that.hash
+                    && this.version == that.version
+                    && this.elements.equals(that.elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
 }
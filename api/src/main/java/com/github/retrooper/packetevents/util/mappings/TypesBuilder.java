@@ -18,6 +18,7 @@
 
 package com.github.retrooper.packetevents.util.mappings;
 
+import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
 import com.github.retrooper.packetevents.protocol.nbt.NBTString;
@@ -29,8 +30,15 @@ import com.github.retrooper.packetevents.util.VersionMapper;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,9 +47,15 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 public class TypesBuilder {
+    private static final int SNAPSHOT_MAGIC = 0x50454944; // PEID
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+
     private final String mapPath;
     private Map<ClientVersion, Map<String, Integer>> entries = new HashMap<>();
     private VersionMapper versionMapper;
+    // sorted names and their ids in every version, row by row, if loaded from a snapshot
+    private String[] snapshotKeys;
+    private IntBuffer snapshotIds;
 
     @Nullable
     VersionedRegistry<?> registry;
@@ -58,6 +72,76 @@ public class TypesBuilder {
     }
 
     public void load() {
+        if (!this.loadFromSnapshot()) {
+            this.loadFromNbt();
+        }
+    }
+
+    /**
+     * Loads the final ids of every version from the snapshot generated at build time,
+     * without replaying the diffs of the compressed mappings.
+     *
+     * @return false if there is no usable snapshot for this mapping file
+     */
+    @ApiStatus.Internal
+    public boolean loadFromSnapshot() {
+        final byte[] data;
+        try (final InputStream input = PacketEvents.getAPI().getSettings().getResourceProvider()
+                .apply("assets/mappings/" + mapPath + ".ids")) {
+            if (input == null) {
+                return false;
+            }
+            data = readFully(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load mapping snapshot.", e);
+        }
+
+        try {
+            final ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+            final DataInputStream header = new DataInputStream(bytes);
+            if (header.readInt() != SNAPSHOT_MAGIC || header.readUnsignedByte() != SNAPSHOT_FORMAT_VERSION) {
+                return false;
+            }
+            final ClientVersion[] versions = new ClientVersion[header.readUnsignedByte()];
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = ClientVersion.valueOf(header.readUTF());
+            }
+            final String[] keys = new String[header.readInt()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = header.readUTF();
+            }
+            final int offset = data.length - bytes.available();
+
+            this.snapshotIds = ByteBuffer.wrap(data, offset, data.length - offset).slice().asIntBuffer();
+            this.snapshotKeys = keys;
+            this.entries = null;
+            this.versionMapper = new VersionMapper(versions);
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Malformed mapping snapshot " + mapPath + ".ids", e);
+        }
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(input.available(), 1024));
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Loads the ids of every version by replaying the diffs of the compressed mappings.
+     */
+    @ApiStatus.Internal
+    public void loadFromNbt() {
+        this.snapshotKeys = null;
+        this.snapshotIds = null;
+        if (this.entries == null) {
+            this.entries = new HashMap<>();
+        }
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress("mappings/" + mapPath)) {
             compound.skipOne(); // skip version tag for now
             int length = ((NBTNumber) compound.next().getValue()).getAsInt(); // Second tag is the length
@@ -158,13 +242,24 @@ public class TypesBuilder {
     }
 
     public void unloadFileMappings() {
-        entries.clear();
-        entries = null;
+        if (entries != null) {
+            entries.clear();
+            entries = null;
+        }
+        snapshotKeys = null;
+        snapshotIds = null;
     }
 
     public TypesBuilderData define(String key) {
         final ResourceLocation name = new ResourceLocation(key);
         final int[] ids = new int[getVersions().length];
+        if (snapshotKeys != null) {
+            final int row = Arrays.binarySearch(snapshotKeys, key);
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = row < 0 ? -1 : snapshotIds.get(row * ids.length + i);
+            }
+            return new TypesBuilderData(this, name, ids);
+        }
         int index = 0;
         for (ClientVersion v : getVersions()) {
             final Map<String, Integer> map = entries.get(v);
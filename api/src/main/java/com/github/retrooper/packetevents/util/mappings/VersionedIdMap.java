@@ -0,0 +1,64 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.mappings;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Maps ids to entries for each mappings version, using dense arrays indexed by id.
+ * Lookups don't box the id, negative ids are never stored.
+ */
+@ApiStatus.Internal
+public final class VersionedIdMap<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[][] tables = new Object[0][];
+
+    public void put(int versionIndex, int id, T entry) {
+        if (versionIndex < 0 || id < 0) {
+            return; // not present in this version
+        }
+        if (versionIndex >= this.tables.length) {
+            int length = this.tables.length;
+            this.tables = Arrays.copyOf(this.tables, versionIndex + 1);
+            Arrays.fill(this.tables, length, this.tables.length, EMPTY);
+        }
+        Object[] table = this.tables[versionIndex];
+        if (id >= table.length) {
+            table = Arrays.copyOf(table, Math.max(id + 1, table.length * 2));
+            this.tables[versionIndex] = table;
+        }
+        table[id] = entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(int versionIndex, int id) {
+        Object[][] tables = this.tables;
+        if (versionIndex < 0 || versionIndex >= tables.length) {
+            return null;
+        }
+        Object[] table = tables[versionIndex];
+        return id >= 0 && id < table.length ? (T) table[id] : null;
+    }
+
+}
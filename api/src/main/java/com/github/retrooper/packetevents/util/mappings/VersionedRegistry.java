@@ -24,10 +24,13 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 public final class VersionedRegistry<T extends MappedEntity> implements IRegistry<T> {
@@ -36,7 +39,10 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
     private final TypesBuilder typesBuilder;
 
     private final Map<String, T> typeMap = new HashMap<>();
-    private final Map<Byte, Map<Integer, T>> typeIdMap = new HashMap<>();
+    // every defined entry in definition order, so the last one defined wins if ids collide
+    private final List<T> definedEntries = new ArrayList<>();
+    // entries indexed by id for each mappings version, built once a version is used
+    private final AtomicReferenceArray<Object[]> typeIdMaps;
 
     public VersionedRegistry(String registry, String mappingsPath) {
         this(new ResourceLocation(registry), mappingsPath);
@@ -46,12 +52,18 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
         this.registryKey = registryKey;
         this.typesBuilder = new TypesBuilder(mappingsPath);
         this.typesBuilder.registry = this;
+        this.typeIdMaps = new AtomicReferenceArray<>(this.typesBuilder.getVersions().length);
     }
 
     @ApiStatus.Internal
     public <Z extends T> Z define(String name, Function<TypesBuilderData, Z> builder) {
         Z instance = builder.apply(this.typesBuilder.define(name));
-        MappingHelper.registerMapping(this.typesBuilder, this.typeMap, this.typeIdMap, instance);
+        this.typeMap.put(instance.getName().toString(), instance);
+        this.definedEntries.add(instance);
+        // drop id maps which have been built too early
+        for (int i = 0; i < this.typeIdMaps.length(); i++) {
+            this.typeIdMaps.set(i, null);
+        }
         return instance;
     }
 
@@ -71,11 +83,32 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
         return this.typeMap.get(ResourceLocation.normString(name));
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public @Nullable T getById(ClientVersion version, int id) {
         int index = this.typesBuilder.getDataIndex(version);
-        Map<Integer, T> idMap = this.typeIdMap.get((byte) index);
-        return idMap.get(id);
+        Object[] idTable = this.typeIdMaps.get(index);
+        if (idTable == null) {
+            idTable = this.loadIds(index);
+        }
+        return id >= 0 && id < idTable.length ? (T) idTable[id] : null;
+    }
+
+    private Object[] loadIds(int index) {
+        ClientVersion version = this.typesBuilder.getVersions()[index];
+        int maxId = -1;
+        for (T entry : this.definedEntries) {
+            maxId = Math.max(maxId, entry.getId(version));
+        }
+        Object[] idTable = new Object[maxId + 1];
+        for (T entry : this.definedEntries) {
+            int id = entry.getId(version);
+            if (id >= 0) { // not present in this version
+                idTable[id] = entry;
+            }
+        }
+        this.typeIdMaps.set(index, idTable);
+        return idTable;
     }
 
     @Override
@@ -0,0 +1,214 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.wrapper;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+
+/**
+ * The location and encoding of a primitive field in a packet buffer, as recorded by
+ * {@link PacketWrapper#scanFields(com.github.retrooper.packetevents.event.ProtocolPacketEvent)}.
+ * Setters overwrite the field in place and never change the length of the packet.
+ */
+public final class PacketField {
+
+    private final Object buffer;
+    private final Encoding encoding;
+    private final int offset;
+    private final int length;
+
+    PacketField(Object buffer, Encoding encoding, int offset, int length) {
+        this.buffer = buffer;
+        this.encoding = encoding;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public Encoding getEncoding() {
+        return this.encoding;
+    }
+
+    /**
+     * @return the absolute index of the first byte of this field in the buffer
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    public int getLength() {
+        return this.length;
+    }
+
+    public long getLong() {
+        switch (this.encoding) {
+            case BYTE:
+            case BOOLEAN:
+                return (byte) this.getBits();
+            case SHORT:
+                return (short) this.getBits();
+            case INT:
+                return (int) this.getBits();
+            case FLOAT:
+                return (long) Float.intBitsToFloat((int) this.getBits());
+            case DOUBLE:
+                return (long) Double.longBitsToDouble(this.getBits());
+            case VAR_INT:
+                return (int) this.getVarLong();
+            case VAR_LONG:
+                return this.getVarLong();
+            default:
+                return this.getBits();
+        }
+    }
+
+    public int getInt() {
+        return (int) this.getLong();
+    }
+
+    public float getFloat() {
+        return this.encoding == Encoding.FLOAT ? Float.intBitsToFloat((int) this.getBits()) : (float) this.getDouble();
+    }
+
+    public double getDouble() {
+        switch (this.encoding) {
+            case FLOAT:
+                return Float.intBitsToFloat((int) this.getBits());
+            case DOUBLE:
+                return Double.longBitsToDouble(this.getBits());
+            default:
+                return this.getLong();
+        }
+    }
+
+    public void setByte(int value) {
+        if (this.encoding != Encoding.UNSIGNED_BYTE) {
+            this.checkEncoding(Encoding.BYTE);
+        }
+        this.setBits(value);
+    }
+
+    public void setBoolean(boolean value) {
+        this.checkEncoding(Encoding.BOOLEAN);
+        this.setBits(value ? 1 : 0);
+    }
+
+    public void setShort(int value) {
+        if (this.encoding != Encoding.UNSIGNED_SHORT) {
+            this.checkEncoding(Encoding.SHORT);
+        }
+        this.setBits(value);
+    }
+
+    public void setInt(int value) {
+        this.checkEncoding(Encoding.INT);
+        this.setBits(value);
+    }
+
+    public void setLong(long value) {
+        this.checkEncoding(Encoding.LONG);
+        this.setBits(value);
+    }
+
+    public void setFloat(float value) {
+        this.checkEncoding(Encoding.FLOAT);
+        this.setBits(Float.floatToRawIntBits(value));
+    }
+
+    public void setDouble(double value) {
+        this.checkEncoding(Encoding.DOUBLE);
+        this.setBits(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Overwrites a var int field, padding the new value to the length of the old one.
+     *
+     * @return false if the value needs more bytes than the field has, the field is unchanged then
+     */
+    public boolean setVarInt(int value) {
+        this.checkEncoding(Encoding.VAR_INT);
+        return this.setVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Overwrites a var long field, padding the new value to the length of the old one.
+     *
+     * @return false if the value needs more bytes than the field has, the field is unchanged then
+     */
+    public boolean setVarLong(long value) {
+        if (this.encoding != Encoding.VAR_INT) {
+            this.checkEncoding(Encoding.VAR_LONG);
+        }
+        // the last byte may only hold the remaining bits
+        if (this.length < 10 && (value >>> (7 * this.length)) != 0L) {
+            return false;
+        }
+        for (int i = 0; i < this.length; i++) {
+            int bits = (int) (value >>> (7 * i)) & 0x7F;
+            ByteBufHelper.setByte(this.buffer, this.offset + i, i == this.length - 1 ? bits : bits | 0x80);
+        }
+        return true;
+    }
+
+    private void checkEncoding(Encoding encoding) {
+        if (this.encoding != encoding) {
+            throw new IllegalStateException("Can't write " + encoding + " to a " + this.encoding + " field");
+        }
+    }
+
+    // reads fixed-width fields in big endian order
+    private long getBits() {
+        long bits = 0L;
+        for (int i = 0; i < this.length; i++) {
+            bits = bits << 8 | ByteBufHelper.getUnsignedByte(this.buffer, this.offset + i);
+        }
+        return bits;
+    }
+
+    private void setBits(long bits) {
+        for (int i = this.length - 1; i >= 0; i--, bits >>>= 8) {
+            ByteBufHelper.setByte(this.buffer, this.offset + i, (int) bits & 0xFF);
+        }
+    }
+
+    private long getVarLong() {
+        long value = 0L;
+        for (int i = 0; i < this.length; i++) {
+            value |= (long) (ByteBufHelper.getUnsignedByte(this.buffer, this.offset + i) & 0x7F) << (7 * i);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "PacketField{encoding=" + this.encoding + ", offset=" + this.offset + ", length=" + this.length + '}';
+    }
+
+    public enum Encoding {
+        BYTE,
+        UNSIGNED_BYTE,
+        BOOLEAN,
+        SHORT,
+        UNSIGNED_SHORT,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        VAR_INT,
+        VAR_LONG
+    }
+}
@@ -49,6 +49,7 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.manager.server.VersionComparison;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.ChatType;
@@ -65,6 +66,7 @@ import com.github.retrooper.packetevents.protocol.chat.filter.FilterMaskType;
 import com.github.retrooper.packetevents.protocol.component.ComponentType;
 import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
 import com.github.retrooper.packetevents.protocol.component.PatchableComponentMap;
+import com.github.retrooper.packetevents.protocol.entity.data.CompactEntityMetadata;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityDataType;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
@@ -139,6 +141,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     // For sending chunk data packets, which need this data
     @Nullable
     protected User user;
+    // fields read while scanning, see scanFields
+    @Nullable
+    private List<PacketField> scannedFields;
 
     private static final int MODERN_MESSAGE_LENGTH = 262144;
     private static final int LEGACY_MESSAGE_LENGTH = 32767;
@@ -279,6 +284,92 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         event.setLastUsedWrapper(this);
     }
 
+    /**
+     * Points this wrapper at the packet of the given event and decodes it,
+     * replacing whatever it held for a previous packet.
+     * This allows one wrapper instance to be reused for many events, but such an instance
+     * must not be shared between threads.
+     *
+     * @param event the event to read
+     * @see ProtocolPacketEvent#readInto(PacketWrapper)
+     */
+    public final void readFrom(ProtocolPacketEvent event) {
+        if (event.getLastUsedWrapper() == this) {
+            // already decoded for this event
+            return;
+        }
+        this.clientVersion = event.getUser().getClientVersion();
+        this.serverVersion = event.getServerVersion();
+        this.user = event.getUser();
+        this.buffer = event.getByteBuf();
+        this.packetTypeData.setPacketType(event.getPacketType());
+        this.packetTypeData.setNativePacketId(event.getPacketId());
+        readEvent(event);
+    }
+
+    /**
+     * Decodes the packet of the given event into this wrapper and records where each primitive field
+     * is located in the event buffer, in the order the fields are read.
+     * <p>
+     * Unlike {@link #readFrom(ProtocolPacketEvent)}, the event isn't marked as decoded by this wrapper.
+     * Fixed-width fields, and variable-length fields whose new value fits into the old length,
+     * can then be overwritten through the returned fields directly in the original buffer,
+     * which is passed on without being re-encoded.
+     * <p>
+     * The fields are listed in the order {@link #read()} reads them, which is the order of the protocol
+     * and may differ between server versions. Wrappers which support scanning declare the position
+     * of each field as {@code FIELD_*} constants.
+     * If another wrapper has decoded this packet already, its content will be re-encoded
+     * and changes have to be made through that wrapper instead.
+     *
+     * @param event the event to scan
+     * @return the primitive fields of the packet, in the order they are read
+     */
+    public final List<PacketField> scanFields(ProtocolPacketEvent event) {
+        this.clientVersion = event.getUser().getClientVersion();
+        this.serverVersion = event.getServerVersion();
+        this.user = event.getUser();
+        this.buffer = event.getByteBuf();
+        this.packetTypeData.setPacketType(event.getPacketType());
+        this.packetTypeData.setNativePacketId(event.getPacketId());
+
+        List<PacketField> fields = new ArrayList<>();
+        int readerIndex = ByteBufHelper.readerIndex(this.buffer);
+        this.scannedFields = fields;
+        try {
+            read();
+        } finally {
+            this.scannedFields = null;
+            ByteBufHelper.readerIndex(this.buffer, readerIndex);
+        }
+        return fields;
+    }
+
+    private void scanField(PacketField.Encoding encoding, int length) {
+        scannedFields.add(new PacketField(buffer, encoding, ByteBufHelper.readerIndex(buffer), length));
+    }
+
+    /**
+     * Runs a reader against a detached copy of packet data, as if it was still the content of this wrapper.
+     * Wrappers use this to decode expensive parts of a packet lazily, when the original buffer may already be gone.
+     *
+     * @param data          the packet data to read
+     * @param serverVersion the version the data was encoded with
+     * @param reader        the reader to run
+     */
+    protected final void readDetached(byte[] data, ServerVersion serverVersion, Runnable reader) {
+        Object buffer = this.buffer;
+        ServerVersion currentVersion = this.serverVersion;
+        this.buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(data);
+        this.serverVersion = serverVersion;
+        try {
+            reader.run();
+        } finally {
+            this.buffer = buffer;
+            this.serverVersion = currentVersion;
+        }
+    }
+
     public ClientVersion getClientVersion() {
         return clientVersion;
     }
@@ -351,6 +442,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public byte readByte() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.BYTE, 1);
+        }
         return ByteBufHelper.readByte(buffer);
     }
 
@@ -359,11 +453,17 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public short readUnsignedByte() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.UNSIGNED_BYTE, 1);
+        }
         return ByteBufHelper.readUnsignedByte(buffer);
     }
 
     public boolean readBoolean() {
-        return readByte() != 0;
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.BOOLEAN, 1);
+        }
+        return ByteBufHelper.readByte(buffer) != 0;
     }
 
     public void writeBoolean(boolean value) {
@@ -371,6 +471,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readInt() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.INT, 4);
+        }
         return ByteBufHelper.readInt(buffer);
     }
 
@@ -387,17 +490,21 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readVarInt() {
+        int start = scannedFields != null ? ByteBufHelper.readerIndex(buffer) : 0;
         int value = 0;
         int length = 0;
         byte currentByte;
         do {
-            currentByte = readByte();
+            currentByte = ByteBufHelper.readByte(buffer);
             value |= (currentByte & 0x7F) << (length * 7);
             length++;
             if (length > 5) {
                 throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
             }
         } while ((currentByte & 0x80) == 0x80);
+        if (scannedFields != null) {
+            scannedFields.add(new PacketField(buffer, PacketField.Encoding.VAR_INT, start, length));
+        }
         return value;
     }
 
@@ -744,10 +851,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readUnsignedShort() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.UNSIGNED_SHORT, 2);
+        }
         return ByteBufHelper.readUnsignedShort(buffer);
     }
 
     public short readShort() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.SHORT, 2);
+        }
         return ByteBufHelper.readShort(buffer);
     }
 
@@ -756,11 +869,11 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readVarShort() {
-        int low = readUnsignedShort();
+        int low = ByteBufHelper.readUnsignedShort(buffer);
         int high = 0;
         if ((low & 0x8000) != 0) {
             low = low & 0x7FFF;
-            high = readUnsignedByte();
+            high = ByteBufHelper.readUnsignedByte(buffer);
         }
         return ((high & 0xFF) << 15) | low;
     }
@@ -778,6 +891,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long readLong() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.LONG, 8);
+        }
         return ByteBufHelper.readLong(buffer);
     }
 
@@ -786,12 +902,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long readVarLong() {
+        int start = scannedFields != null ? ByteBufHelper.readerIndex(buffer) : 0;
         long value = 0;
         int size = 0;
         int b;
-        while (((b = readByte()) & 0x80) == 0x80) {
+        while (((b = ByteBufHelper.readByte(buffer)) & 0x80) == 0x80) {
             value |= (long) (b & 0x7F) << (size++ * 7);
         }
+        if (scannedFields != null) {
+            scannedFields.add(new PacketField(buffer, PacketField.Encoding.VAR_LONG, start, size + 1));
+        }
         return value | ((long) (b & 0x7F) << (size * 7));
     }
 
@@ -805,6 +925,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public float readFloat() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.FLOAT, 4);
+        }
         return ByteBufHelper.readFloat(buffer);
     }
 
@@ -813,6 +936,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public double readDouble() {
+        if (scannedFields != null) {
+            scanField(PacketField.Encoding.DOUBLE, 8);
+        }
         return ByteBufHelper.readDouble(buffer);
     }
 
@@ -958,14 +1084,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public List<EntityData> readEntityMetadata() {
         List<EntityData> list = new ArrayList<>();
+        ClientVersion version = serverVersion.toClientVersion();
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             boolean v1_10 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
             short index;
             while ((index = readUnsignedByte()) != 255) {
                 int typeID = v1_10 ? readVarInt() : readUnsignedByte();
-                EntityDataType<?> type = EntityDataTypes.getById(serverVersion.toClientVersion(), typeID);
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
                 if (type == null) {
-                    throw new IllegalStateException("Unknown entity metadata type id: " + typeID + " version " + serverVersion.toClientVersion());
+                    throw new IllegalStateException("Unknown entity metadata type id: " + typeID + " version " + version);
                 }
                 Object value = type.getDataDeserializer().apply(this);
                 list.add(new EntityData(index, type, value));
@@ -974,7 +1101,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
             for (byte data = readByte(); data != Byte.MAX_VALUE; data = readByte()) {
                 int typeID = (data & 0xE0) >> 5;
                 int index = data & 0x1F;
-                EntityDataType<?> type = EntityDataTypes.getById(serverVersion.toClientVersion(), typeID);
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
                 Object value = type.getDataDeserializer().apply(this);
                 EntityData entityData = new EntityData(index, type, value);
                 list.add(entityData);
@@ -983,25 +1110,55 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return list;
     }
 
+    /**
+     * Reads entity metadata into the given container, without boxing primitive values.
+     *
+     * @param metadata the container to read into, it is cleared first
+     */
+    public void readEntityMetadata(CompactEntityMetadata metadata) {
+        metadata.clear();
+        ClientVersion version = serverVersion.toClientVersion();
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            boolean v1_10 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
+            short index;
+            while ((index = readUnsignedByte()) != 255) {
+                int typeID = v1_10 ? readVarInt() : readUnsignedByte();
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
+                if (type == null) {
+                    throw new IllegalStateException("Unknown entity metadata type id: " + typeID + " version " + version);
+                }
+                metadata.readValue(this, index, type);
+            }
+        } else {
+            for (byte data = readByte(); data != Byte.MAX_VALUE; data = readByte()) {
+                int typeID = (data & 0xE0) >> 5;
+                int index = data & 0x1F;
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
+                metadata.readValue(this, index, type);
+            }
+        }
+    }
+
     public void writeEntityMetadata(List<EntityData> list) {
         if (list == null) {
             list = new ArrayList<>();
         }
+        ClientVersion version = serverVersion.toClientVersion();
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             boolean v1_10 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
             for (EntityData entityData : list) {
                 writeByte(entityData.getIndex());
                 if (v1_10) {
-                    writeVarInt(entityData.getType().getId(serverVersion.toClientVersion()));
+                    writeVarInt(entityData.getType().getId(version));
                 } else {
-                    writeByte(entityData.getType().getId(serverVersion.toClientVersion()));
+                    writeByte(entityData.getType().getId(version));
                 }
                 entityData.getType().getDataSerializer().accept(this, entityData.getValue());
             }
             writeByte(255); // End of metadata array
         } else {
             for (EntityData entityData : list) {
-                int typeID = entityData.getType().getId(serverVersion.toClientVersion());
+                int typeID = entityData.getType().getId(version);
                 int index = entityData.getIndex();
                 int data = (typeID << 5 | index & 31) & 255;
                 writeByte(data);
@@ -1011,6 +1168,37 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         }
     }
 
+    public void writeEntityMetadata(CompactEntityMetadata metadata) {
+        List<EntityData> list = metadata.getList();
+        if (list != null) {
+            writeEntityMetadata(list);
+            return;
+        }
+        ClientVersion version = serverVersion.toClientVersion();
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            boolean v1_10 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
+            for (int i = 0; i < metadata.size(); i++) {
+                int index = metadata.getIndex(i);
+                writeByte(index);
+                if (v1_10) {
+                    writeVarInt(metadata.getType(index).getId(version));
+                } else {
+                    writeByte(metadata.getType(index).getId(version));
+                }
+                metadata.writeValue(this, index);
+            }
+            writeByte(255); // End of metadata array
+        } else {
+            for (int i = 0; i < metadata.size(); i++) {
+                int index = metadata.getIndex(i);
+                int typeID = metadata.getType(index).getId(version);
+                writeByte((typeID << 5 | index & 31) & 255);
+                metadata.writeValue(this, index);
+            }
+            writeByte(127); // End of metadata array
+        }
+    }
+
     public void writeEntityMetadata(EntityMetadataProvider metadata) {
         writeEntityMetadata(metadata.entityData(serverVersion.toClientVersion()));
     }
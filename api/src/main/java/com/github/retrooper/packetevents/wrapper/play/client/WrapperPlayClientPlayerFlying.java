@@ -23,23 +23,24 @@ import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.world.Location;
-import com.github.retrooper.packetevents.util.Vector3d;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
 public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClientPlayerFlying> {
     private boolean positionChanged;
     private boolean rotationChanged;
-    private Location location;
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+    // only created when requested, decoding keeps the primitive fields above
+    private @Nullable Location location;
     private boolean onGround;
     private boolean horizontalCollision;
 
     public WrapperPlayClientPlayerFlying(PacketReceiveEvent event) {
-        super(event, false);
-        positionChanged = event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION ||
-                event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
-        rotationChanged = event.getPacketType() == PacketType.Play.Client.PLAYER_ROTATION ||
-                event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
-        readEvent(event);
+        super(event);
     }
 
     public WrapperPlayClientPlayerFlying(boolean positionChanged, boolean rotationChanged, boolean onGround, Location location) {
@@ -66,24 +67,33 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     @Override
     public void read() {
-        Vector3d position = new Vector3d();
-        float yaw = 0.0f;
-        float pitch = 0.0f;
+        // derived from the packet type here, so reused wrappers pick up the flags of each packet
+        PacketTypeCommon packetType = getPacketTypeData().getPacketType();
+        if (packetType != null) {
+            positionChanged = packetType == PacketType.Play.Client.PLAYER_POSITION ||
+                    packetType == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+            rotationChanged = packetType == PacketType.Play.Client.PLAYER_ROTATION ||
+                    packetType == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+        }
+        x = 0.0D;
+        y = 0.0D;
+        z = 0.0D;
+        yaw = 0.0f;
+        pitch = 0.0f;
+        location = null;
         if (positionChanged) {
-            double x = readDouble();
-            double y = readDouble();
+            x = readDouble();
+            y = readDouble();
             if (serverVersion == ServerVersion.V_1_7_10) {
                 //Can be ignored, cause stance = (y + 1.62)
                 double stance = readDouble();
             }
-            double z = readDouble();
-            position = new Vector3d(x, y, z);
+            z = readDouble();
         }
         if (rotationChanged) {
             yaw = readFloat();
             pitch = readFloat();
         }
-        location = new Location(position, yaw, pitch);
         byte flags = this.readByte();
         this.onGround = (flags & 0b01) == 0b01;
         this.horizontalCollision = (flags & 0b10) == 0b10;
@@ -92,17 +102,17 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
     @Override
     public void write() {
         if (positionChanged) {
-            writeDouble(location.getPosition().getX());
+            writeDouble(getX());
             if (serverVersion == ServerVersion.V_1_7_10) {
                 //Can be ignored, cause stance = (y + 1.62)
-                writeDouble(location.getPosition().getY() + 1.62);
+                writeDouble(getY() + 1.62);
             }
-            writeDouble(location.getPosition().getY());
-            writeDouble(location.getPosition().getZ());
+            writeDouble(getY());
+            writeDouble(getZ());
         }
         if (rotationChanged) {
-            writeFloat(location.getYaw());
-            writeFloat(location.getPitch());
+            writeFloat(getYaw());
+            writeFloat(getPitch());
         }
         this.writeByte((this.onGround ? 0b01 : 0b00) | (this.horizontalCollision ? 0b10 : 0b00));
     }
@@ -111,12 +121,20 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
     public void copy(WrapperPlayClientPlayerFlying wrapper) {
         positionChanged = wrapper.positionChanged;
         rotationChanged = wrapper.rotationChanged;
+        x = wrapper.x;
+        y = wrapper.y;
+        z = wrapper.z;
+        yaw = wrapper.yaw;
+        pitch = wrapper.pitch;
         location = wrapper.location;
         onGround = wrapper.onGround;
         horizontalCollision = wrapper.horizontalCollision;
     }
 
     public Location getLocation() {
+        if (location == null) {
+            location = new Location(x, y, z, yaw, pitch);
+        }
         return location;
     }
 
@@ -124,6 +142,31 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
         this.location = location;
     }
 
+    /**
+     * Reads the x coordinate without creating a {@link Location}.
+     *
+     * @return the x coordinate, or 0 if the position didn't change
+     */
+    public double getX() {
+        return location != null ? location.getX() : x;
+    }
+
+    public double getY() {
+        return location != null ? location.getY() : y;
+    }
+
+    public double getZ() {
+        return location != null ? location.getZ() : z;
+    }
+
+    public float getYaw() {
+        return location != null ? location.getYaw() : yaw;
+    }
+
+    public float getPitch() {
+        return location != null ? location.getPitch() : pitch;
+    }
+
     public boolean hasPositionChanged() {
         return positionChanged;
     }
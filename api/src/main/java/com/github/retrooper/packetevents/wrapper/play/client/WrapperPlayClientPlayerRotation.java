@@ -31,18 +31,10 @@ public class WrapperPlayClientPlayerRotation extends WrapperPlayClientPlayerFlyi
         super(false, true, onGround, new Location(new Vector3d(), yaw, pitch));
     }
 
-    public float getYaw() {
-        return getLocation().getYaw();
-    }
-
     public void setYaw(float yaw) {
         getLocation().setYaw(yaw);
     }
 
-    public float getPitch() {
-        return getLocation().getPitch();
-    }
-
     public void setPitch(float pitch) {
         getLocation().setPitch(pitch);
     }
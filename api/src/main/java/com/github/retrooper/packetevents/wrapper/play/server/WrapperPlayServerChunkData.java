@@ -20,8 +20,11 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -40,10 +43,11 @@ import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkR
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_7;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_8;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_9;
+import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -63,6 +67,17 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
     private LightData lightData;
     private boolean ignoreOldData;
 
+    // Everything after the header is kept as raw bytes until the column or light data is requested.
+    // If neither is requested, write() passes these bytes through unchanged.
+    // They are copied out of the packet buffer, as the wrapper may outlive it.
+    private int chunkX;
+    private int chunkZ;
+    private boolean fullChunk;
+    private int chunkSize;
+    private DimensionType dimensionType;
+    private ServerVersion dataVersion;
+    private byte @Nullable [] rawData;
+
     public WrapperPlayServerChunkData(PacketSendEvent event) {
         super(event);
     }
@@ -84,18 +99,38 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void read() {
-        int chunkX = readInt();
-        int chunkZ = readInt();
+        chunkX = readInt();
+        chunkZ = readInt();
 
         // All chunks are full chunks in 1.17 and above to avoid issues with arbitrary world height
         boolean checkFullChunk = serverVersion.isOlderThan(ServerVersion.V_1_17);
         // Don't read a boolean if there isn't a boolean to be read
-        boolean fullChunk = !checkFullChunk || readBoolean();
+        fullChunk = !checkFullChunk || readBoolean();
 
         if (serverVersion == ServerVersion.V_1_16 || serverVersion == ServerVersion.V_1_16_1) {
             ignoreOldData = readBoolean();
         }
 
+        // Capture the user state now, it may have changed by the time the column is decoded
+        chunkSize = 16;
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17)) {
+            chunkSize = user.getTotalWorldHeight() >> 4;
+        }
+        dimensionType = user.getDimensionType();
+        dataVersion = serverVersion;
+        rawData = readRemainingBytes();
+        column = null;
+        lightData = null;
+    }
+
+    private void decode() {
+        if (rawData != null) {
+            readDetached(rawData, dataVersion, this::readColumn);
+            rawData = null;
+        }
+    }
+
+    private void readColumn() {
         // There is no bitset on 1.18 and above, instead the SingletonPalette is used to represent a chunk with all air
         BitSet chunkMask = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18) ? null : ChunkBitMask.readChunkMask(this);
         boolean hasHeightMaps = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_14);
@@ -110,11 +145,6 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             secondaryChunkMask = ChunkBitMask.readChunkMask(this);
         }
 
-        int chunkSize = 16;
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17)) {
-            chunkSize = user.getTotalWorldHeight() >> 4;
-        }
-
         // 1.7 logic is the same
         // 1.8 logic is the same, however, MCProtocolLib checks for remaining bytes... is this needed?
         // 1.9 logic is the same
@@ -145,19 +175,24 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
-        byte[] data = readByteArray();
-        data = deflate(data, chunkMask, fullChunk);
+        // 1.7/1.8 decode the section data from a byte array, newer versions read it straight from the buffer
+        byte[] data = null;
+        NetStreamInput dataIn = null;
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            int length = readVarInt();
+            dataIn = new ByteBufNetStreamInput(ByteBufHelper.readSlice(buffer, length));
+        } else {
+            data = deflate(readByteArray(), chunkMask, fullChunk);
+        }
 
         boolean hasBlocklight = (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16) || serverVersion.isOlderThan(ServerVersion.V_1_14))
                 && !serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8);
         boolean checkForSky = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16)
                 || this.serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8)
-                || this.user != null && this.user.getDimensionType().equals(DimensionTypes.OVERWORLD)
+                || this.dimensionType.equals(DimensionTypes.OVERWORLD)
                 && this.serverVersion.isOlderThan(ServerVersion.V_1_14);
 
-        // 1.7/1.8 don't use this NetStreamInput
-        NetStreamInput dataIn = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? new NetStreamInput(new ByteArrayInputStream(data)) : null;
-        BaseChunk[] chunks = getChunkReader().read(this.user.getDimensionType(), chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
+        BaseChunk[] chunks = getChunkReader().read(this.dimensionType, chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
 
         if (hasBiomeData && serverVersion.isOlderThan(ServerVersion.V_1_15)) {
             if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13)) { // Uses ints
@@ -221,6 +256,26 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         }
     }
 
+    private void writeSections(BaseChunk[] chunks) {
+        byte[][] sections = new byte[chunks.length][];
+        int length = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = (Chunk_v1_18) chunks[i];
+            byte[] data = chunk.getEncoded();
+            if (data == null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                Chunk_v1_18.write(new NetStreamOutput(bytes), chunk);
+                data = bytes.toByteArray();
+            }
+            sections[i] = data;
+            length += data.length;
+        }
+        writeVarInt(length);
+        for (byte[] section : sections) {
+            writeBytes(section);
+        }
+    }
+
     private byte[] deflate(byte[] toDeflate, BitSet mask, boolean fullChunk) {
         // The data is already decompressed! (step only needed for 1.7.x)
         if (serverVersion.isNewerThan(ServerVersion.V_1_7_10)) {
@@ -257,20 +312,30 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void write() {
+        if (rawData != null && serverVersion != dataVersion) {
+            // the raw bytes don't match the target version
+            decode();
+        }
+        if (rawData != null) {
+            writeInt(chunkX);
+            writeInt(chunkZ);
+            if (serverVersion.isOlderThan(ServerVersion.V_1_17)) {
+                writeBoolean(fullChunk);
+            }
+            if (serverVersion == ServerVersion.V_1_16 || serverVersion == ServerVersion.V_1_16_1) {
+                writeBoolean(ignoreOldData);
+            }
+            writeBytes(rawData);
+            return;
+        }
+
         writeInt(column.getX());
         writeInt(column.getZ());
 
-        boolean v1_18 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18);
-        boolean v1_17 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17);
-        boolean v1_9 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9);
-        boolean v1_8 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8);
-
-        if (!v1_17) {
+        if (serverVersion.isOlderThan(ServerVersion.V_1_17)) {
             writeBoolean(column.isFullChunk());
         }
 
-        boolean hasWrittenBiomeData = false;
-
         if (serverVersion == ServerVersion.V_1_16 ||
                 serverVersion == ServerVersion.V_1_16_1) {
             //Ignore old data = true, use existing lighting
@@ -278,6 +343,15 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             writeBoolean(ignoreOldData);
         }
 
+        writeColumn();
+    }
+
+    // Writes everything after the header, the part kept as raw bytes when reading
+    private void writeColumn() {
+        boolean v1_18 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18);
+        boolean v1_8 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8);
+        boolean hasWrittenBiomeData = false;
+
         //TODO Decompress data on 1.7.10
         //https://github.com/retrooper/packetevents/blob/794ad6b042c1c89a931d322f4f83317b573e891a/src/main/java/io/github/retrooper/packetevents/wrapper/play/server/WrapperPlayServerChunkData.java
 
@@ -290,9 +364,8 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             for (int index = 0; index < chunks.length; index++) {
                 BaseChunk chunk = chunks[index];
-                if (v1_18) {
-                    Chunk_v1_18.write(dataOut, (Chunk_v1_18) chunk);
-                } else if (v1_9 && chunk != null) {
+                // 1.18 sections are written straight into the packet buffer by writeSections
+                if (!v1_18 && chunk != null) {
                     chunkMask.set(index);
                     Chunk_v1_9.write(dataOut, (Chunk_v1_9) chunk);
                 }
@@ -368,8 +441,12 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             hasWrittenBiomeData = true;
         }
 
-        byte[] data = dataBytes.toByteArray();
-        writeByteArray(data);
+        if (v1_18) {
+            writeSections(chunks);
+        } else {
+            byte[] data = dataBytes.toByteArray();
+            writeByteArray(data);
+        }
 
         if (column.hasBiomeData() && !hasWrittenBiomeData) {
             byte[] biomeDataBytes = new byte[256];
@@ -404,25 +481,75 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void copy(WrapperPlayServerChunkData wrapper) {
+        this.chunkX = wrapper.chunkX;
+        this.chunkZ = wrapper.chunkZ;
+        this.fullChunk = wrapper.fullChunk;
+        this.chunkSize = wrapper.chunkSize;
+        this.dimensionType = wrapper.dimensionType;
+        this.dataVersion = wrapper.dataVersion;
+        this.rawData = wrapper.rawData;
         this.column = wrapper.column;
         this.lightData = wrapper.lightData != null
                 ? wrapper.lightData.clone() : null;
         this.ignoreOldData = wrapper.ignoreOldData;
+        if (wrapper.column != null && wrapper.dimensionType != null) {
+            // The column was decoded from a packet, the copy decodes sections of its own from its current state
+            this.chunkX = wrapper.column.getX();
+            this.chunkZ = wrapper.column.getZ();
+            this.fullChunk = wrapper.column.isFullChunk();
+            this.dataVersion = wrapper.serverVersion;
+            this.rawData = wrapper.encodeColumn();
+            this.column = null;
+        }
+    }
+
+    private byte[] encodeColumn() {
+        Object buffer = this.buffer;
+        this.buffer = UnpooledByteBufAllocationHelper.buffer();
+        try {
+            writeColumn();
+            return ByteBufHelper.copyBytes(this.buffer);
+        } finally {
+            ByteBufHelper.release(this.buffer);
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Gets the chunk x coordinate without decoding the column.
+     *
+     * @return the chunk x coordinate
+     */
+    public int getX() {
+        return column != null ? column.getX() : chunkX;
+    }
+
+    /**
+     * Gets the chunk z coordinate without decoding the column.
+     *
+     * @return the chunk z coordinate
+     */
+    public int getZ() {
+        return column != null ? column.getZ() : chunkZ;
     }
 
     public Column getColumn() {
+        decode();
         return column;
     }
 
     public void setColumn(Column column) {
+        decode();
         this.column = column;
     }
 
     public LightData getLightData() {
+        decode();
         return lightData;
     }
 
     public void setLightData(LightData lightData) {
+        decode();
         this.lightData = lightData;
     }
 
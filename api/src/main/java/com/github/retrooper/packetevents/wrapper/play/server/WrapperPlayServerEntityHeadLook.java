@@ -24,6 +24,9 @@ import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 public class WrapperPlayServerEntityHeadLook extends PacketWrapper<WrapperPlayServerEntityHeadLook> {
     private static final float ROTATION_FACTOR = 256.0F / 360.0F;
+    // positions of the fields returned by scanFields, the same on all versions
+    public static final int FIELD_ENTITY_ID = 0;
+    public static final int FIELD_HEAD_YAW = 1;
     private int entityID;
     private float headYaw;
 
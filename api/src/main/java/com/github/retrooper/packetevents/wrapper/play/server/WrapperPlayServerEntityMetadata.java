@@ -21,16 +21,22 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.entity.data.CompactEntityMetadata;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataType;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityMetadataProvider;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 import java.util.List;
 
 public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlayServerEntityMetadata> {
     private int entityID;
-    private List<EntityData> entityMetadata;
+    // lists returned by getEntityMetadata() are owned by this container, so both views stay in sync
+    private CompactEntityMetadata compactMetadata;
 
     public WrapperPlayServerEntityMetadata(PacketSendEvent event) {
         super(event);
@@ -39,17 +45,99 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     public WrapperPlayServerEntityMetadata(int entityID, List<EntityData> entityMetadata) {
         super(PacketType.Play.Server.ENTITY_METADATA);
         this.entityID = entityID;
-        this.entityMetadata = entityMetadata;
+        this.compactMetadata = CompactEntityMetadata.backedBy(entityMetadata);
     }
 
     public WrapperPlayServerEntityMetadata(int entityID, EntityMetadataProvider metadata) {
         this(entityID, metadata.entityData(PacketEvents.getAPI().getServerManager().getVersion().toClientVersion()));
     }
 
+    public WrapperPlayServerEntityMetadata(int entityID, CompactEntityMetadata metadata) {
+        super(PacketType.Play.Server.ENTITY_METADATA);
+        this.entityID = entityID;
+        this.compactMetadata = metadata;
+    }
+
+    /**
+     * Sets and clears bits of a byte entry directly in the buffer of the event, e.g. the glowing
+     * or invisible bit of the shared flags at index 0, without decoding and re-encoding the packet.
+     * If a wrapper has already decoded the packet, its metadata is changed instead.
+     *
+     * @param event     an entity metadata send event
+     * @param index     metadata index of the byte entry
+     * @param setMask   bits to set
+     * @param clearMask bits to clear
+     * @return false if the packet has no byte entry at the index
+     */
+    public static boolean patchByteEntry(PacketSendEvent event, int index, int setMask, int clearMask) {
+        PacketWrapper<?> last = event.getLastUsedWrapper();
+        if (last instanceof WrapperPlayServerEntityMetadata) {
+            CompactEntityMetadata metadata = ((WrapperPlayServerEntityMetadata) last).getCompactMetadata();
+            if (metadata.getType(index) != EntityDataTypes.BYTE) {
+                return false;
+            }
+            metadata.setByte(index, (byte) (metadata.getByte(index) & ~clearMask | setMask));
+            event.markForReEncode(true);
+            return true;
+        }
+
+        Object buffer = event.getByteBuf();
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        try {
+            PacketWrapper<?> reader = PacketWrapper.createUniversalPacketWrapper(buffer);
+            reader.setServerVersion(event.getServerVersion());
+            int position = findEntry(reader, index);
+            if (position == -1) {
+                return false;
+            }
+            short value = ByteBufHelper.getUnsignedByte(buffer, position);
+            ByteBufHelper.setByte(buffer, position, value & ~clearMask | setMask);
+            return true;
+        } finally {
+            ByteBufHelper.readerIndex(buffer, readerIndex);
+        }
+    }
+
+    // returns the buffer position of the value of the byte entry at the index, or -1
+    private static int findEntry(PacketWrapper<?> reader, int targetIndex) {
+        ServerVersion serverVersion = reader.getServerVersion();
+        ClientVersion version = serverVersion.toClientVersion();
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            reader.readVarInt();
+        } else {
+            reader.readInt();
+        }
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            boolean v1_10 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
+            short index;
+            while ((index = reader.readUnsignedByte()) != 255) {
+                int typeID = v1_10 ? reader.readVarInt() : reader.readUnsignedByte();
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
+                if (type == null) {
+                    throw new IllegalStateException("Unknown entity metadata type id: " + typeID + " version " + version);
+                }
+                if (index == targetIndex) {
+                    return type == EntityDataTypes.BYTE ? ByteBufHelper.readerIndex(reader.getBuffer()) : -1;
+                }
+                type.getDataDeserializer().apply(reader);
+            }
+        } else {
+            for (byte data = reader.readByte(); data != Byte.MAX_VALUE; data = reader.readByte()) {
+                EntityDataType<?> type = EntityDataTypes.getById(version, (data & 0xE0) >> 5);
+                if ((data & 0x1F) == targetIndex) {
+                    return type == EntityDataTypes.BYTE ? ByteBufHelper.readerIndex(reader.getBuffer()) : -1;
+                }
+                type.getDataDeserializer().apply(reader);
+            }
+        }
+        return -1;
+    }
+
     @Override
     public void read() {
         entityID = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? readVarInt() : readInt();
-        entityMetadata = readEntityMetadata();
+        compactMetadata = new CompactEntityMetadata();
+        readEntityMetadata(compactMetadata);
     }
 
     @Override
@@ -59,13 +147,13 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
         } else {
             writeInt(entityID);
         }
-        writeEntityMetadata(entityMetadata);
+        writeEntityMetadata(compactMetadata);
     }
 
     @Override
     public void copy(WrapperPlayServerEntityMetadata wrapper) {
         entityID = wrapper.entityID;
-        entityMetadata = wrapper.entityMetadata;
+        compactMetadata = wrapper.compactMetadata;
     }
 
     public int getEntityId() {
@@ -76,15 +164,35 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
         this.entityID = entityID;
     }
 
+    /**
+     * Returns the metadata of this packet as a list. From then on, the list is written and the
+     * {@link #getCompactMetadata() compact metadata} reads and writes through to it.
+     *
+     * @return the metadata of this packet
+     */
     public List<EntityData> getEntityMetadata() {
-        return entityMetadata;
+        return compactMetadata.convertToList();
     }
 
     public void setEntityMetadata(List<EntityData> entityMetadata) {
-        this.entityMetadata = entityMetadata;
+        this.compactMetadata = CompactEntityMetadata.backedBy(entityMetadata);
     }
 
     public void setEntityMetadata(EntityMetadataProvider metadata) {
-        this.entityMetadata = metadata.entityData(serverVersion.toClientVersion());
+        setEntityMetadata(metadata.entityData(serverVersion.toClientVersion()));
+    }
+
+    /**
+     * Returns the metadata of this packet without boxed values, for listeners which only access
+     * a few entries. Once {@link #getEntityMetadata()} has been called, it reads and writes through to that list.
+     *
+     * @return the metadata of this packet
+     */
+    public CompactEntityMetadata getCompactMetadata() {
+        return compactMetadata;
+    }
+
+    public void setCompactMetadata(CompactEntityMetadata compactMetadata) {
+        this.compactMetadata = compactMetadata;
     }
 }
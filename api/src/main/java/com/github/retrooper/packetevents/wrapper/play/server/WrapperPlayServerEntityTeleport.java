@@ -27,6 +27,7 @@ import com.github.retrooper.packetevents.protocol.world.Location;
 import com.github.retrooper.packetevents.util.MathUtil;
 import com.github.retrooper.packetevents.util.Vector3d;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This is not for teleporting players, but for teleporting other entities the player can see - such as mobs, animals, etc.
@@ -40,8 +41,18 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
      * Changed with 1.21.2
      * <p>
      * In versions before 1.21.2, the {@link EntityPositionData#getDeltaMovement()} will always be zero.
+     * <p>
+     * Only created when requested, decoding keeps the primitive fields below.
      */
-    private EntityPositionData values;
+    private @Nullable EntityPositionData values;
+    private double x;
+    private double y;
+    private double z;
+    private double deltaX;
+    private double deltaY;
+    private double deltaZ;
+    private float yaw;
+    private float pitch;
     /**
      * Added with 1.21.2
      */
@@ -79,17 +90,35 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        this.values = null;
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.entityID = this.readVarInt();
-            this.values = EntityPositionData.read(this);
+            // same layout as EntityPositionData#read
+            this.x = this.readDouble();
+            this.y = this.readDouble();
+            this.z = this.readDouble();
+            this.deltaX = this.readDouble();
+            this.deltaY = this.readDouble();
+            this.deltaZ = this.readDouble();
+            this.yaw = this.readFloat();
+            this.pitch = this.readFloat();
             this.relativeFlags = new RelativeFlag(this.readInt());
         } else {
             this.entityID = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? this.readVarInt() : this.readInt();
-            Vector3d position = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? Vector3d.read(this) :
-                    new Vector3d(this.readInt() / 32d, this.readInt() / 32d, this.readInt() / 32d);
-            float yaw = this.readByte() / ROTATION_FACTOR;
-            float pitch = this.readByte() / ROTATION_FACTOR;
-            this.values = new EntityPositionData(position, Vector3d.zero(), yaw, pitch);
+            if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+                this.x = this.readDouble();
+                this.y = this.readDouble();
+                this.z = this.readDouble();
+            } else {
+                this.x = this.readInt() / 32d;
+                this.y = this.readInt() / 32d;
+                this.z = this.readInt() / 32d;
+            }
+            this.deltaX = 0.0D;
+            this.deltaY = 0.0D;
+            this.deltaZ = 0.0D;
+            this.yaw = this.readByte() / ROTATION_FACTOR;
+            this.pitch = this.readByte() / ROTATION_FACTOR;
         }
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             this.onGround = this.readBoolean();
@@ -100,7 +129,18 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     public void write() {
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.writeVarInt(this.entityID);
-            EntityPositionData.write(this, this.values);
+            if (this.values != null) {
+                EntityPositionData.write(this, this.values);
+            } else {
+                this.writeDouble(this.x);
+                this.writeDouble(this.y);
+                this.writeDouble(this.z);
+                this.writeDouble(this.deltaX);
+                this.writeDouble(this.deltaY);
+                this.writeDouble(this.deltaZ);
+                this.writeFloat(this.yaw);
+                this.writeFloat(this.pitch);
+            }
             this.writeInt(this.relativeFlags.getFullMask());
         } else {
             if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
@@ -109,15 +149,16 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
                 this.writeInt(this.entityID);
             }
             if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
-                Vector3d.write(this, this.values.getPosition());
+                this.writeDouble(this.getX());
+                this.writeDouble(this.getY());
+                this.writeDouble(this.getZ());
             } else {
-                Vector3d pos = this.values.getPosition();
-                this.writeInt(MathUtil.floor(pos.x * 32d));
-                this.writeInt(MathUtil.floor(pos.y * 32d));
-                this.writeInt(MathUtil.floor(pos.z * 32d));
+                this.writeInt(MathUtil.floor(this.getX() * 32d));
+                this.writeInt(MathUtil.floor(this.getY() * 32d));
+                this.writeInt(MathUtil.floor(this.getZ() * 32d));
             }
-            this.writeByte((int) (this.values.getYaw() * ROTATION_FACTOR));
-            this.writeByte((int) (this.values.getPitch() * ROTATION_FACTOR));
+            this.writeByte((int) (this.getYaw() * ROTATION_FACTOR));
+            this.writeByte((int) (this.getPitch() * ROTATION_FACTOR));
         }
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             this.writeBoolean(this.onGround);
@@ -128,6 +169,14 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     public void copy(WrapperPlayServerEntityTeleport wrapper) {
         this.entityID = wrapper.entityID;
         this.values = wrapper.values;
+        this.x = wrapper.x;
+        this.y = wrapper.y;
+        this.z = wrapper.z;
+        this.deltaX = wrapper.deltaX;
+        this.deltaY = wrapper.deltaY;
+        this.deltaZ = wrapper.deltaZ;
+        this.yaw = wrapper.yaw;
+        this.pitch = wrapper.pitch;
         this.relativeFlags = wrapper.relativeFlags;
         this.onGround = wrapper.onGround;
     }
@@ -141,6 +190,10 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     }
 
     public EntityPositionData getValues() {
+        if (this.values == null) {
+            this.values = new EntityPositionData(new Vector3d(this.x, this.y, this.z),
+                    new Vector3d(this.deltaX, this.deltaY, this.deltaZ), this.yaw, this.pitch);
+        }
         return this.values;
     }
 
@@ -149,35 +202,52 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     }
 
     public Vector3d getPosition() {
-        return this.values.getPosition();
+        return this.getValues().getPosition();
     }
 
     public void setPosition(Vector3d position) {
-        this.values.setPosition(position);
+        this.getValues().setPosition(position);
+    }
+
+    /**
+     * Reads the x coordinate without creating a {@link Vector3d}.
+     *
+     * @return the x coordinate
+     */
+    public double getX() {
+        return this.values != null ? this.values.getPosition().getX() : this.x;
+    }
+
+    public double getY() {
+        return this.values != null ? this.values.getPosition().getY() : this.y;
+    }
+
+    public double getZ() {
+        return this.values != null ? this.values.getPosition().getZ() : this.z;
     }
 
     public Vector3d getDeltaMovement() {
-        return this.values.getDeltaMovement();
+        return this.getValues().getDeltaMovement();
     }
 
     public void setDeltaMovement(Vector3d deltaMovement) {
-        this.values.setDeltaMovement(deltaMovement);
+        this.getValues().setDeltaMovement(deltaMovement);
     }
 
     public float getYaw() {
-        return this.values.getYaw();
+        return this.values != null ? this.values.getYaw() : this.yaw;
     }
 
     public void setYaw(float yaw) {
-        this.values.setYaw(yaw);
+        this.getValues().setYaw(yaw);
     }
 
     public float getPitch() {
-        return this.values.getPitch();
+        return this.values != null ? this.values.getPitch() : this.pitch;
     }
 
     public void setPitch(float pitch) {
-        this.values.setPitch(pitch);
+        this.getValues().setPitch(pitch);
     }
 
     public RelativeFlag getRelativeFlags() {
@@ -34,6 +34,12 @@ public class WrapperPlayServerEntityVelocity extends PacketWrapper<WrapperPlaySe
     // to work around the loss of precision
     private static final double PRECISION_LOSS_FIX = 1e-11d;
 
+    // positions of the fields returned by scanFields, the same on all versions
+    public static final int FIELD_ENTITY_ID = 0;
+    public static final int FIELD_VELOCITY_X = 1;
+    public static final int FIELD_VELOCITY_Y = 2;
+    public static final int FIELD_VELOCITY_Z = 3;
+
     private int entityID;
     private Vector3d velocity;
 
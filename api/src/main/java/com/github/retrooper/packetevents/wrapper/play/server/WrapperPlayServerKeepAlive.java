@@ -29,6 +29,8 @@ import com.github.retrooper.packetevents.wrapper.PacketWrapper;
  * The client is expected to respond with a (server-bound) keep-alive, containing the same ID that the server sent out.
  */
 public class WrapperPlayServerKeepAlive extends PacketWrapper<WrapperPlayServerKeepAlive> {
+    // position of the field returned by scanFields, a long since 1.12 and an int before
+    public static final int FIELD_ID = 0;
     private long id;
 
     public WrapperPlayServerKeepAlive(PacketSendEvent event) {
@@ -0,0 +1,151 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestPacketEventsBuilder;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BroadcastPacketTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test broadcasting a packet with a single encode")
+    public void testSingleEncode() {
+        List<EmbeddedChannel> channels = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            EmbeddedChannel channel = new EmbeddedChannel();
+            channels.add(channel);
+            users.add(createUser(channel, ConnectionState.PLAY));
+        }
+        // users without a channel are skipped
+        users.add(createUser(null, ConnectionState.PLAY));
+
+        CountingKeepAlive wrapper = new CountingKeepAlive(42L);
+        PacketEvents.getAPI().getProtocolManager().broadcastPacket(users, wrapper);
+
+        assertEquals(1, wrapper.encoded.size());
+        ByteBuf source = wrapper.encoded.get(0);
+        assertEquals(0, source.refCnt());
+        List<ByteBuf> sent = new ArrayList<>();
+        for (EmbeddedChannel channel : channels) {
+            assertEquals(1, channel.outboundMessages().size());
+            ByteBuf buffer = channel.readOutbound();
+            assertNotSame(source, buffer);
+            assertEquals(1, buffer.refCnt());
+            assertEquals(42L, buffer.getLong(buffer.writerIndex() - 8));
+            for (ByteBuf other : sent) {
+                assertNotSame(other, buffer);
+            }
+            sent.add(buffer);
+        }
+        // every channel owns its copy
+        sent.get(0).release();
+        assertEquals(1, sent.get(1).refCnt());
+        for (int i = 1; i < sent.size(); i++) {
+            sent.get(i).release();
+        }
+        for (EmbeddedChannel channel : channels) {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    @DisplayName("Test broadcasting a packet on proxies with one encode per version and state")
+    public void testProxyEncodes() {
+        PacketEvents.setAPI(TestPacketEventsBuilder.buildNoCache(getPlugin(), new PacketEventsSettings(), true));
+        ProtocolManager protocolManager = PacketEvents.getAPI().getProtocolManager();
+        ClientVersion[] versions = {ClientVersion.getLatest(), ClientVersion.getLatest(),
+                ClientVersion.V_1_20_5, ClientVersion.getLatest()};
+        ConnectionState[] states = {ConnectionState.PLAY, ConnectionState.PLAY,
+                ConnectionState.PLAY, ConnectionState.CONFIGURATION};
+        List<EmbeddedChannel> channels = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < versions.length; i++) {
+            EmbeddedChannel channel = new EmbeddedChannel();
+            User user = createUser(channel, states[i], versions[i]);
+            protocolManager.setUser(channel, user);
+            channels.add(channel);
+            users.add(user);
+        }
+
+        try {
+            CountingKeepAlive wrapper = new CountingKeepAlive(42L);
+            protocolManager.broadcastPacket(users, wrapper);
+
+            // the two latest play users share an encode
+            assertEquals(3, wrapper.encoded.size());
+            for (ByteBuf source : wrapper.encoded) {
+                assertEquals(0, source.refCnt());
+            }
+            assertSame(ServerVersion.getLatest(), wrapper.getServerVersion());
+
+            List<byte[]> sent = new ArrayList<>();
+            for (EmbeddedChannel channel : channels) {
+                assertEquals(1, channel.outboundMessages().size());
+                ByteBuf buffer = channel.readOutbound();
+                assertEquals(1, buffer.refCnt());
+                sent.add(ByteBufUtil.getBytes(buffer));
+                buffer.release();
+            }
+            assertArrayEquals(sent.get(0), sent.get(1));
+        } finally {
+            for (EmbeddedChannel channel : channels) {
+                protocolManager.removeUser(channel);
+                channel.finishAndReleaseAll();
+            }
+        }
+    }
+
+    // records the buffer of every encode
+    private static final class CountingKeepAlive extends WrapperPlayServerKeepAlive {
+
+        private final List<ByteBuf> encoded = new ArrayList<>();
+
+        private CountingKeepAlive(long id) {
+            super(id);
+        }
+
+        @Override
+        public void write() {
+            super.write();
+            encoded.add((ByteBuf) buffer);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.LightData;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkDataTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test lazy chunk data decoding")
+    public void testLazyDecoding() throws PacketProcessException {
+        User user = createUser(null, ConnectionState.PLAY);
+        BaseChunk[] chunks = new BaseChunk[user.getTotalWorldHeight() >> 4];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk_v1_18();
+        }
+        ((Chunk_v1_18) chunks[0]).set(1, 2, 3, 1);
+        Column column = new Column(4, -7, true, chunks, new TileEntity[0], new NBTCompound());
+        LightData lightData = new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+
+        ByteBuf encoded = encode(new WrapperPlayServerChunkData(column, lightData));
+        byte[] expected = ByteBufUtil.getBytes(encoded);
+
+        PacketSendEvent event = createSendEvent(user, encoded);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+        assertEquals(4, wrapper.getX());
+        assertEquals(-7, wrapper.getZ());
+
+        // untouched packets are written back as they were read
+        assertArrayEquals(expected, encodeToBytes(wrapper, event.getPacketId()));
+
+        Column decoded = wrapper.getColumn();
+        assertEquals(4, decoded.getX());
+        assertEquals(1, ((Chunk_v1_18) decoded.getChunks()[0]).getBlockId(1, 2, 3));
+    }
+
+    @Test
+    @DisplayName("Test writing lazy chunk data back into the packet buffer")
+    public void testInPlaceReEncoding() throws PacketProcessException {
+        User user = createUser(null, ConnectionState.PLAY);
+        BaseChunk[] chunks = new BaseChunk[user.getTotalWorldHeight() >> 4];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk_v1_18();
+        }
+        ((Chunk_v1_18) chunks[2]).set(5, 6, 7, 3);
+        Column column = new Column(1, 2, true, chunks, new TileEntity[0], new NBTCompound());
+        LightData lightData = new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+
+        ByteBuf encoded = encode(new WrapperPlayServerChunkData(column, lightData));
+        byte[] expected = ByteBufUtil.getBytes(encoded);
+
+        PacketSendEvent event = createSendEvent(user, encoded);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+        WrapperPlayServerChunkData copy = new WrapperPlayServerChunkData(column, lightData);
+        copy.copy(wrapper);
+
+        // this is how a packet is re-encoded when a listener used a wrapper
+        encoded.clear();
+        wrapper.writeVarInt(event.getPacketId());
+        wrapper.write();
+        assertArrayEquals(expected, ByteBufUtil.getBytes(encoded));
+
+        // copies don't depend on the packet buffer
+        encoded.setZero(0, encoded.capacity());
+        assertEquals(3, ((Chunk_v1_18) copy.getColumn().getChunks()[2]).getBlockId(5, 6, 7));
+    }
+
+    @Test
+    @DisplayName("Test using lazy chunk data after the packet buffer is released")
+    public void testReleasedPacketBuffer() throws PacketProcessException {
+        User user = createUser(null, ConnectionState.PLAY);
+        BaseChunk[] chunks = new BaseChunk[user.getTotalWorldHeight() >> 4];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk_v1_18();
+        }
+        ((Chunk_v1_18) chunks[1]).set(9, 10, 11, 2);
+        Column column = new Column(3, 5, true, chunks, new TileEntity[0], new NBTCompound());
+        LightData lightData = new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+
+        ByteBuf encoded = encode(new WrapperPlayServerChunkData(column, lightData));
+        byte[] expected = ByteBufUtil.getBytes(encoded);
+
+        PacketSendEvent event = createSendEvent(user, encoded);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+        // like netty does once the event is processed
+        encoded.release();
+
+        // a wrapper kept by a listener can still be sent and decoded later
+        assertArrayEquals(expected, encodeToBytes(wrapper, event.getPacketId()));
+        assertEquals(2, ((Chunk_v1_18) wrapper.getColumn().getChunks()[1]).getBlockId(9, 10, 11));
+        assertArrayEquals(expected, encodeToBytes(wrapper, event.getPacketId()));
+    }
+
+    @Test
+    @DisplayName("Test parallel chunk section decoding")
+    public void testParallelDecoding() throws PacketProcessException {
+        PacketEvents.getAPI().getSettings()
+                .parallelChunkDecoding(true)
+                .parallelChunkDecodingThreshold(0);
+        User user = createUser(null, ConnectionState.PLAY);
+        BaseChunk[] chunks = new BaseChunk[user.getTotalWorldHeight() >> 4];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            for (int x = 0; x < 16; x++) {
+                chunk.set(x, i % 16, x, 1 + (i + x) % 5);
+            }
+            chunks[i] = chunk;
+        }
+        Column column = new Column(0, 0, true, chunks, new TileEntity[0], new NBTCompound());
+        LightData lightData = new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+
+        ByteBuf encoded = encode(new WrapperPlayServerChunkData(column, lightData));
+
+        PacketSendEvent event = createSendEvent(user, encoded);
+        BaseChunk[] decoded = new WrapperPlayServerChunkData(event).getColumn().getChunks();
+        assertEquals(chunks.length, decoded.length);
+        for (int i = 0; i < chunks.length; i++) {
+            for (int x = 0; x < 16; x++) {
+                assertEquals(chunks[i].getBlockId(x, i % 16, x), decoded[i].getBlockId(x, i % 16, x));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test re-encoding a partially modified chunk")
+    public void testModifiedSections() throws PacketProcessException {
+        User user = createUser(null, ConnectionState.PLAY);
+        BaseChunk[] chunks = new BaseChunk[user.getTotalWorldHeight() >> 4];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            chunk.set(i % 16, i % 16, i % 16, 1 + i % 3);
+            chunks[i] = chunk;
+        }
+        Column column = new Column(0, 0, true, chunks, new TileEntity[0], new NBTCompound());
+        LightData lightData = new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+
+        ByteBuf encoded = encode(new WrapperPlayServerChunkData(column, lightData));
+
+        PacketSendEvent event = createSendEvent(user, encoded);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+        Chunk_v1_18[] decoded = toSections(wrapper.getColumn().getChunks());
+        assertFalse(decoded[1].getChunkData().isModified());
+        decoded[1].set(8, 8, 8, 2);
+        assertTrue(decoded[1].getChunkData().isModified());
+        assertFalse(decoded[2].getChunkData().isModified());
+
+        ByteBuf reEncoded = encode(wrapper, event.getPacketId());
+        PacketSendEvent reEncodedEvent = createSendEvent(user, reEncoded);
+        Chunk_v1_18[] result = toSections(new WrapperPlayServerChunkData(reEncodedEvent).getColumn().getChunks());
+        assertEquals(2, result[1].getBlockId(8, 8, 8));
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(1 + i % 3, result[i].getBlockId(i % 16, i % 16, i % 16));
+        }
+
+        // the sections keep their own bytes, writing into the buffer they were read from doesn't change them
+        encoded.clear();
+        wrapper.buffer = encoded;
+        wrapper.writeVarInt(event.getPacketId());
+        wrapper.write();
+        PacketSendEvent inPlaceEvent = createSendEvent(user, encoded);
+        Chunk_v1_18[] inPlace = toSections(new WrapperPlayServerChunkData(inPlaceEvent).getColumn().getChunks());
+        assertEquals(2, inPlace[1].getBlockId(8, 8, 8));
+        for (int i = 0; i < inPlace.length; i++) {
+            assertEquals(1 + i % 3, inPlace[i].getBlockId(i % 16, i % 16, i % 16));
+        }
+    }
+
+    @Test
+    @DisplayName("Test decoded chunk sections outliving the packet buffer")
+    public void testDetachedSections() throws PacketProcessException {
+        User user = createUser(null, ConnectionState.PLAY);
+        BaseChunk[] chunks = new BaseChunk[user.getTotalWorldHeight() >> 4];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            chunk.set(i % 16, 0, 0, 1 + i % 3);
+            chunks[i] = chunk;
+        }
+        Column column = new Column(0, 0, true, chunks, new TileEntity[0], new NBTCompound());
+        LightData lightData = new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+
+        ByteBuf encoded = encode(new WrapperPlayServerChunkData(column, lightData));
+        byte[] expected = ByteBufUtil.getBytes(encoded);
+
+        PacketSendEvent event = createSendEvent(user, encoded);
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(event);
+        Chunk_v1_18[] decoded = toSections(wrapper.getColumn().getChunks());
+        encoded.release();
+
+        // unchanged sections are written back from their own bytes
+        assertArrayEquals(expected, encodeToBytes(wrapper, event.getPacketId()));
+
+        WrapperPlayServerChunkData copy = new WrapperPlayServerChunkData(column, lightData);
+        copy.copy(wrapper);
+        Chunk_v1_18[] copied = toSections(copy.getColumn().getChunks());
+        assertNotSame(decoded[0], copied[0]);
+        copied[0].set(4, 4, 4, 2);
+        assertEquals(0, decoded[0].getBlockId(4, 4, 4));
+        assertArrayEquals(expected, encodeToBytes(wrapper, event.getPacketId()));
+    }
+
+    private static Chunk_v1_18[] toSections(BaseChunk[] chunks) {
+        Chunk_v1_18[] sections = new Chunk_v1_18[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            sections[i] = (Chunk_v1_18) chunks[i];
+        }
+        return sections;
+    }
+}
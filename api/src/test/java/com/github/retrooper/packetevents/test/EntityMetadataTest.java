@@ -0,0 +1,161 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.entity.data.CompactEntityMetadata;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntityMetadataTest extends BaseDummyAPITest {
+
+    private static final User USER = createUser(null, ConnectionState.PLAY);
+
+    @Test
+    @DisplayName("Test compact entity metadata")
+    public void testCompactMetadata() throws PacketProcessException {
+        byte[] data = encodeToBytes(new WrapperPlayServerEntityMetadata(42, Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x21),
+                new EntityData(8, EntityDataTypes.FLOAT, 20f),
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(4, EntityDataTypes.BOOLEAN, true),
+                new EntityData(3, EntityDataTypes.STRING, "name"))));
+
+        WrapperPlayServerEntityMetadata wrapper = new WrapperPlayServerEntityMetadata(createSendEvent(USER, data));
+        CompactEntityMetadata metadata = wrapper.getCompactMetadata();
+        assertEquals(5, metadata.size());
+        assertEquals(8, metadata.getIndex(1));
+        assertEquals(0x21, metadata.getByte(0));
+        assertEquals(20f, metadata.getFloat(8));
+        assertEquals(300, metadata.getInt(1));
+        assertTrue(metadata.getBoolean(4));
+        assertEquals("name", metadata.getValue(3));
+        assertSame(EntityDataTypes.FLOAT, metadata.getType(8));
+        assertNull(metadata.getType(2));
+
+        // written in the same order and encoding
+        assertArrayEquals(data, encodeToBytes(wrapper));
+        assertEquals(Integer.valueOf(300), wrapper.getEntityMetadata().get(2).getValue());
+
+        metadata = new CompactEntityMetadata();
+        metadata.setInt(1, 300);
+        metadata.setByte(0, (byte) 0x21);
+        metadata.remove(1);
+        metadata.setInt(1, 7);
+        assertEquals(0, metadata.getIndex(0));
+        assertEquals(7, metadata.getInt(1));
+    }
+
+    @Test
+    @DisplayName("Test switching between list and compact entity metadata")
+    public void testSwitchingForms() throws PacketProcessException {
+        byte[] data = encodeToBytes(new WrapperPlayServerEntityMetadata(42, Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x01),
+                new EntityData(1, EntityDataTypes.INT, 300))));
+
+        WrapperPlayServerEntityMetadata wrapper = new WrapperPlayServerEntityMetadata(createSendEvent(USER, data));
+        CompactEntityMetadata metadata = wrapper.getCompactMetadata();
+        List<EntityData> list = wrapper.getEntityMetadata();
+        list.get(1).setValue(7);
+        list.add(new EntityData(4, EntityDataTypes.BOOLEAN, true));
+
+        // edits of the list are neither lost nor hidden from the compact form
+        assertSame(metadata, wrapper.getCompactMetadata());
+        assertEquals(7, metadata.getInt(1));
+        assertTrue(metadata.getBoolean(4));
+        metadata.setByte(0, (byte) 0x40);
+        assertEquals((byte) 0x40, list.get(0).getValue());
+        assertSame(list, wrapper.getEntityMetadata());
+
+        WrapperPlayServerEntityMetadata decoded = new WrapperPlayServerEntityMetadata(createSendEvent(USER, encodeToBytes(wrapper)));
+        assertEquals(3, decoded.getCompactMetadata().size());
+        assertEquals(0x40, decoded.getCompactMetadata().getByte(0));
+        assertEquals(7, decoded.getCompactMetadata().getInt(1));
+        assertTrue(decoded.getCompactMetadata().getBoolean(4));
+
+        // wrappers created with a list read and write through to it as well
+        list = new ArrayList<>();
+        wrapper = new WrapperPlayServerEntityMetadata(42, list);
+        wrapper.getCompactMetadata().setInt(1, 5);
+        assertEquals(1, list.size());
+        assertEquals(5, list.get(0).getValue());
+    }
+
+    @Test
+    @DisplayName("Test entity metadata with duplicate indices")
+    public void testDuplicateIndices() throws PacketProcessException {
+        byte[] data = encodeToBytes(new WrapperPlayServerEntityMetadata(42, Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x01),
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x02))));
+
+        WrapperPlayServerEntityMetadata wrapper = new WrapperPlayServerEntityMetadata(createSendEvent(USER, data));
+        CompactEntityMetadata metadata = wrapper.getCompactMetadata();
+        assertEquals(3, metadata.size());
+        // the client ends up with the last entry
+        assertEquals(0x02, metadata.getByte(0));
+        assertArrayEquals(data, encodeToBytes(wrapper));
+        assertEquals(3, wrapper.getEntityMetadata().size());
+
+        metadata.remove(0);
+        assertEquals(1, metadata.size());
+        assertFalse(metadata.contains(0));
+    }
+
+    @Test
+    @DisplayName("Test patching entity flags in place")
+    public void testPatchByteEntry() throws PacketProcessException {
+        byte[] data = encodeToBytes(new WrapperPlayServerEntityMetadata(42, Arrays.asList(
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x01))));
+
+        PacketSendEvent event = createSendEvent(USER, data);
+        assertTrue(WrapperPlayServerEntityMetadata.patchByteEntry(event, 0, 0x40, 0x01));
+        assertFalse(WrapperPlayServerEntityMetadata.patchByteEntry(event, 1, 0x40, 0));
+        assertFalse(WrapperPlayServerEntityMetadata.patchByteEntry(event, 5, 0x40, 0));
+        assertNull(event.getLastUsedWrapper());
+
+        WrapperPlayServerEntityMetadata wrapper = new WrapperPlayServerEntityMetadata(event);
+        assertEquals(0x40, wrapper.getCompactMetadata().getByte(0));
+        assertEquals(300, wrapper.getCompactMetadata().getInt(1));
+
+        // decoded packets are changed through their wrapper
+        assertTrue(WrapperPlayServerEntityMetadata.patchByteEntry(event, 0, 0x20, 0));
+        assertEquals(0x60, wrapper.getCompactMetadata().getByte(0));
+        assertTrue(event.needsReEncode());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventManagerTest {
+
+    @Test
+    @DisplayName("Test per-packet-type listener dispatch")
+    public void testPacketTypeDispatch() {
+        EventManager eventManager = new EventManager();
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.ENTITY_RELATIVE_MOVE));
+
+        PacketListenerCommon filtered = eventManager.registerListener(new PacketListenerAbstract(
+                PacketListenerPriority.NORMAL, PacketType.Play.Server.ENTITY_RELATIVE_MOVE) {
+        });
+        assertTrue(eventManager.hasListeners(PacketType.Play.Server.ENTITY_RELATIVE_MOVE));
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA));
+        assertFalse(eventManager.hasListeners(PacketType.Play.Client.PLAYER_FLYING));
+
+        PacketListenerCommon unfiltered = eventManager.registerListener(new PacketListenerAbstract() {
+        });
+        assertTrue(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA));
+        assertTrue(eventManager.hasListeners(PacketType.Handshaking.Client.HANDSHAKE));
+
+        // packet types outside of the dispatch table still reach the filtered listeners
+        PacketTypeCommon customType = new CustomPacketType();
+        PacketListenerCommon custom = eventManager.registerListener(new PacketListenerAbstract(
+                PacketListenerPriority.NORMAL, customType) {
+        });
+        eventManager.unregisterListener(unfiltered);
+        assertTrue(eventManager.hasListeners(customType));
+        assertFalse(eventManager.hasListeners(new CustomPacketType()));
+        eventManager.registerListener(unfiltered);
+
+        eventManager.unregisterListeners(filtered, unfiltered, custom);
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.ENTITY_RELATIVE_MOVE));
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA));
+        assertFalse(eventManager.hasListeners(customType));
+    }
+
+    private static final class CustomPacketType implements PacketTypeCommon {
+
+        @Override
+        public String getName() {
+            return "CUSTOM";
+        }
+
+        @Override
+        public int getId(ClientVersion version) {
+            return 0;
+        }
+
+        @Override
+        public PacketSide getSide() {
+            return PacketSide.SERVER;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.github.retrooper.packetevents.test;
 
 import com.github.retrooper.packetevents.protocol.attribute.Attributes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.protocol.item.enchantment.type.EnchantmentTypes;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.sound.Sounds;
 import com.github.retrooper.packetevents.protocol.world.biome.Biomes;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.protocol.world.states.enums.Axis;
@@ -13,10 +15,16 @@ import com.github.retrooper.packetevents.protocol.world.states.enums.South;
 import com.github.retrooper.packetevents.protocol.world.states.enums.West;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
 import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MappingIntegrityTest extends BaseDummyAPITest {
 
@@ -25,6 +33,21 @@ public class MappingIntegrityTest extends BaseDummyAPITest {
     public void testAttributeMapping() {
         assertEquals(11, Attributes.GRAVITY.getId(ClientVersion.V_1_20_5));
         assertEquals(1, Attributes.FOLLOW_RANGE.getId(ClientVersion.V_1_20_2));
+        assertSame(Attributes.GRAVITY, Attributes.getById(ClientVersion.V_1_20_5, 11));
+        assertSame(Attributes.FOLLOW_RANGE, Attributes.getById(ClientVersion.V_1_20_2, 1));
+    }
+
+    @Test
+    @DisplayName("Test id lookups")
+    public void testIdLookups() {
+        for (ClientVersion version : new ClientVersion[]{ClientVersion.V_1_12, ClientVersion.V_1_21_4}) {
+            assertSame(Sounds.ENTITY_PLAYER_HURT, Sounds.getById(version, Sounds.ENTITY_PLAYER_HURT.getId(version)));
+            assertSame(EntityTypes.PLAYER, EntityTypes.getById(version, EntityTypes.PLAYER.getId(version)));
+            assertNull(Sounds.getById(version, -1));
+            assertNull(EntityTypes.getById(version, Integer.MAX_VALUE));
+        }
+        assertSame(EntityTypes.PLAYER, EntityTypes.getByLegacyId(ClientVersion.V_1_8, EntityTypes.PLAYER.getLegacyId(ClientVersion.V_1_8)));
+        assertNull(Attributes.getById(ClientVersion.V_1_21_4, -1));
     }
 
     @Test
@@ -34,6 +57,7 @@ public class MappingIntegrityTest extends BaseDummyAPITest {
         assertEquals(13, EnchantmentTypes.SMITE.getId(ClientVersion.V_1_17_1));
         assertEquals(12, EnchantmentTypes.SMITE.getId(ClientVersion.V_1_13_2));
         assertEquals(17, EnchantmentTypes.SMITE.getId(ClientVersion.V_1_12));
+        assertSame(EnchantmentTypes.SMITE, EnchantmentTypes.getById(ClientVersion.V_1_12, 17));
     }
 
     @Test
@@ -90,4 +114,58 @@ public class MappingIntegrityTest extends BaseDummyAPITest {
         state.setAxis(Axis.Z);
         assertEquals(159, state.getGlobalId());
     }
+
+    @Test
+    @DisplayName("Test block state lookups")
+    public void testBlockStateLookups() {
+        ClientVersion version = ClientVersion.V_1_21_4;
+        WrappedBlockState state = WrappedBlockState.getByGlobalId(version, 1, false);
+        int id = 1;
+        while (state != WrappedBlockState.getByGlobalId(version, 0, false)) {
+            assertEquals(id, state.getGlobalId());
+            assertSame(state, WrappedBlockState.getByString(version, state.toString(), false));
+            state = WrappedBlockState.getByGlobalId(version, ++id, false);
+        }
+        assertTrue(id > 20000);
+
+        WrappedBlockState legacyState = WrappedBlockState.getByGlobalId(ClientVersion.V_1_8, 57 * 16, false);
+        assertEquals(StateTypes.DIAMOND_BLOCK, legacyState.getType());
+        assertEquals(legacyState, WrappedBlockState.getByString(ClientVersion.V_1_8, "minecraft:" + legacyState, false));
+    }
+
+    @Test
+    @DisplayName("Test unloading block state mappings")
+    public void testBlockStateUnloading() {
+        ClientVersion version = ClientVersion.V_1_20_5;
+        WrappedBlockState loaded = WrappedBlockState.getByGlobalId(version, 26617, false);
+        WrappedBlockState.unloadMappings(version);
+
+        // the version is loaded again on its next use
+        WrappedBlockState reloaded = WrappedBlockState.getByGlobalId(version, 26617, false);
+        assertNotSame(loaded, reloaded);
+        assertEquals(loaded, reloaded);
+        assertEquals(26617, loaded.getGlobalId());
+    }
+
+    @Test
+    @DisplayName("Test mapping snapshots")
+    public void testMappingSnapshots() {
+        String[][] samples = {
+                {"item/item_type_mappings", "stone", "diamond_sword", "bundle"},
+                {"sound/sound_mappings", "block.stone.break", "entity.player.hurt", "item.bundle.insert"},
+                {"attribute/attribute_mappings", "generic.max_health", "max_health", "luck"},
+        };
+        for (String[] sample : samples) {
+            TypesBuilder nbt = new TypesBuilder(sample[0], true);
+            nbt.loadFromNbt();
+            TypesBuilder snapshot = new TypesBuilder(sample[0], true);
+            assertTrue(snapshot.loadFromSnapshot());
+
+            assertArrayEquals(nbt.getVersions(), snapshot.getVersions());
+            for (int i = 1; i < sample.length; i++) {
+                assertArrayEquals(nbt.define(sample[i]).getData(), snapshot.define(sample[i]).getData());
+            }
+            assertArrayEquals(nbt.define("missing").getData(), snapshot.define("missing").getData());
+        }
+    }
 }
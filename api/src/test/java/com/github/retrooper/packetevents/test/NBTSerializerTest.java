@@ -0,0 +1,165 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.NBTNameInterner;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NBTSerializerTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test that the buffer serializer matches the stream serializer")
+    public void testMatchesStreamSerializer() throws IOException {
+        NBTCompound compound = createCompound();
+        for (boolean named : new boolean[]{true, false}) {
+            ByteBuf streamBuffer = Unpooled.buffer();
+            DefaultNBTSerializer.INSTANCE.serializeTag(new ByteBufOutputStream(streamBuffer), compound, named);
+            ByteBuf directBuffer = Unpooled.buffer();
+            ByteBufNBTSerializer.INSTANCE.serializeTag(directBuffer, compound, named);
+            assertArrayEquals(ByteBufUtil.getBytes(streamBuffer), ByteBufUtil.getBytes(directBuffer));
+
+            NBT fromStream = DefaultNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.noop(),
+                    new ByteBufInputStream(streamBuffer), named);
+            NBT direct = ByteBufNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.noop(), directBuffer, named);
+            assertEquals(compound, fromStream);
+            assertEquals(compound, direct);
+            assertEquals(0, directBuffer.readableBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that interned names and small numbers are shared")
+    public void testSharedInstances() throws IOException {
+        ByteBufNBTSerializer serializer = new ByteBufNBTSerializer(new NBTNameInterner(64, 32));
+        ByteBuf buffer = Unpooled.buffer();
+        ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, createCompound(), false);
+        buffer.markReaderIndex();
+        NBTCompound first = (NBTCompound) serializer.deserializeTag(NBTLimiter.noop(), buffer, false);
+        buffer.resetReaderIndex();
+        NBTCompound second = (NBTCompound) serializer.deserializeTag(NBTLimiter.noop(), buffer, false);
+
+        assertEquals(first, second);
+        for (String name : first.getTagNames()) {
+            assertSame(name, findKey(second, name));
+        }
+        assertSame(first.getTagOrNull("byte"), second.getTagOrNull("byte"));
+        assertSame(NBTInt.of(100), NBTInt.of(100));
+        assertNotSame(NBTInt.of(1000), NBTInt.of(1000));
+    }
+
+    @Test
+    @DisplayName("Test lazily decoded compounds")
+    public void testLazyCompound() throws IOException {
+        NBTCompound compound = createCompound();
+        ByteBuf buffer = Unpooled.buffer();
+        ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, compound, false);
+        byte[] expected = ByteBufUtil.getBytes(buffer);
+
+        NBTCompound lazy = (NBTCompound) ByteBufNBTSerializer.INSTANCE.deserializeTagLazily(
+                NBTLimiter.forBuffer(buffer), buffer, false);
+        assertEquals(0, buffer.readableBytes());
+        assertEquals(compound.size(), lazy.size());
+        assertEquals("minecraft:diamond_sword", lazy.getStringTagValueOrNull("ascii"));
+        assertEquals(compound.getTagOrNull("nested"), lazy.getTagOrNull("nested"));
+        assertNull(lazy.getTagOrNull("missing"));
+
+        // untouched compounds are written back as they were read
+        assertArrayEquals(expected, write(lazy));
+        assertArrayEquals(expected, write(lazy.copy()));
+
+        // changes to nested compounds are written
+        lazy.getCompoundTagOrThrow("nested").setTag("color", new NBTString("gold"));
+        compound.getCompoundTagOrThrow("nested").setTag("color", new NBTString("gold"));
+        assertArrayEquals(write(compound), write(lazy));
+        assertEquals(compound, lazy);
+    }
+
+    private static byte[] write(NBTCompound compound) throws IOException {
+        ByteBuf buffer = Unpooled.buffer();
+        ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, compound, false);
+        return ByteBufUtil.getBytes(buffer);
+    }
+
+    private static String findKey(NBTCompound compound, String name) {
+        for (String key : compound.getTagNames()) {
+            if (key.equals(name)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static NBTCompound createCompound() {
+        NBTList<NBTInt> ints = new NBTList<>(NBTType.INT);
+        for (int i = 0; i < 5; i++) {
+            ints.addTag(new NBTInt(i * 31));
+        }
+        NBTCompound nested = new NBTCompound();
+        nested.setTag("text", new NBTString("Grüße ☃ \0 😀"));
+        nested.setTag("bold", new NBTByte((byte) 1));
+
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("byte", new NBTByte((byte) -3));
+        compound.setTag("short", new NBTShort((short) 1234));
+        compound.setTag("int", new NBTInt(-56789));
+        compound.setTag("long", new NBTLong(Long.MAX_VALUE));
+        compound.setTag("float", new NBTFloat(1.5F));
+        compound.setTag("double", new NBTDouble(-2.25D));
+        compound.setTag("bytes", new NBTByteArray(new byte[]{1, 2, 3}));
+        compound.setTag("ints", new NBTIntArray(new int[]{4, 5, 6}));
+        compound.setTag("longs", new NBTLongArray(new long[]{7L, 8L}));
+        compound.setTag("ascii", new NBTString("minecraft:diamond_sword"));
+        compound.setTag("list", ints);
+        compound.setTag("empty", new NBTList<>(NBTType.END));
+        compound.setTag("nested", nested);
+        return compound;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityHeadLook;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PacketBatchTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test flushing a batch once")
+    public void testSingleFlush() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter);
+        User user = createUser(channel, ConnectionState.PLAY);
+
+        user.batch(batch -> {
+            for (int i = 0; i < 5; i++) {
+                batch.write(new WrapperPlayServerKeepAlive(i));
+            }
+            assertEquals(5, batch.size());
+        });
+        assertEquals(1, counter.flushes);
+        assertEquals(5, channel.outboundMessages().size());
+        for (int i = 0; i < 5; i++) {
+            ((ByteBuf) channel.readOutbound()).release();
+        }
+
+        // nothing is flushed for empty batches
+        user.batch(batch -> {
+        });
+        assertEquals(1, counter.flushes);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Test flushing a batch early once a threshold is reached")
+    public void testFlushThreshold() {
+        PacketEvents.getAPI().getSettings().batchFlushPacketThreshold(2);
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter);
+        User user = createUser(channel, ConnectionState.PLAY);
+
+        user.batch(batch -> {
+            for (int i = 0; i < 5; i++) {
+                batch.write(new WrapperPlayServerEntityHeadLook(i, 90f));
+            }
+        });
+        // two early flushes and one for the remaining packet
+        assertEquals(3, counter.flushes);
+        assertEquals(5, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Test discarding a batch if the writer fails")
+    public void testWriterFailure() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter);
+        User user = createUser(channel, ConnectionState.PLAY);
+
+        assertThrows(IllegalStateException.class, () -> user.batch(batch -> {
+            batch.write(new WrapperPlayServerKeepAlive(1));
+            throw new IllegalStateException();
+        }));
+        assertEquals(0, counter.flushes);
+        assertEquals(0, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+    }
+
+    private static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+        private int flushes;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            flushes++;
+            super.flush(ctx);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.PacketField;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityAnimation;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityHeadLook;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityVelocity;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketFieldTest extends BaseDummyAPITest {
+
+    private static final User USER = createUser(null, ConnectionState.PLAY);
+
+    @Test
+    @DisplayName("Test patching fields in place")
+    public void testPatchFields() throws PacketProcessException {
+        PacketSendEvent event = createSendEvent(USER,
+                encode(new WrapperPlayServerEntityVelocity(100, new Vector3d(0.5, 0, -0.5))));
+        List<PacketField> fields = new WrapperPlayServerEntityVelocity(100, Vector3d.zero()).scanFields(event);
+        assertNull(event.getLastUsedWrapper());
+        assertEquals(4, fields.size());
+        PacketField entityId = fields.get(WrapperPlayServerEntityVelocity.FIELD_ENTITY_ID);
+        assertEquals(PacketField.Encoding.VAR_INT, entityId.getEncoding());
+        assertEquals(100, entityId.getInt());
+        assertEquals(PacketField.Encoding.SHORT, fields.get(WrapperPlayServerEntityVelocity.FIELD_VELOCITY_X).getEncoding());
+        assertEquals(4000, fields.get(WrapperPlayServerEntityVelocity.FIELD_VELOCITY_X).getInt());
+
+        // 100 and 127 both take one byte, padded to the old length otherwise
+        assertTrue(entityId.setVarInt(127));
+        assertFalse(entityId.setVarInt(128));
+        PacketField velocityZ = fields.get(WrapperPlayServerEntityVelocity.FIELD_VELOCITY_Z);
+        velocityZ.setShort(8000);
+        assertThrows(IllegalStateException.class, () -> velocityZ.setInt(0));
+        WrapperPlayServerEntityVelocity velocity = new WrapperPlayServerEntityVelocity(event);
+        assertEquals(127, velocity.getEntityId());
+        assertEquals(new Vector3d(0.5, 0, 1), velocity.getVelocity());
+
+        event = createSendEvent(USER, encode(new WrapperPlayServerEntityHeadLook(300, 90f)));
+        List<PacketField> headLook = new WrapperPlayServerEntityHeadLook(0, 0f).scanFields(event);
+        assertEquals(2, headLook.size());
+        assertTrue(headLook.get(WrapperPlayServerEntityHeadLook.FIELD_ENTITY_ID).setVarInt(1));
+        headLook.get(WrapperPlayServerEntityHeadLook.FIELD_HEAD_YAW).setByte(-64);
+        WrapperPlayServerEntityHeadLook head = new WrapperPlayServerEntityHeadLook(event);
+        assertEquals(1, head.getEntityId());
+        assertEquals(-90f, head.getHeadYaw(), 0.001f);
+
+        event = createSendEvent(USER, encode(new WrapperPlayServerKeepAlive(42L)));
+        PacketField id = new WrapperPlayServerKeepAlive(0L).scanFields(event).get(WrapperPlayServerKeepAlive.FIELD_ID);
+        assertEquals(42L, id.getLong());
+        id.setLong(Long.MIN_VALUE);
+        assertEquals(Long.MIN_VALUE, new WrapperPlayServerKeepAlive(event).getId());
+    }
+
+    @Test
+    @DisplayName("Test unsigned fields are not sign-extended")
+    public void testUnsignedFields() throws PacketProcessException {
+        PacketSendEvent event = createSendEvent(USER, encode(new WrapperPlayServerEntityAnimation(1,
+                WrapperPlayServerEntityAnimation.EntityAnimationType.HURT)));
+        PacketField type = new WrapperPlayServerEntityAnimation(0,
+                WrapperPlayServerEntityAnimation.EntityAnimationType.SWING_MAIN_ARM).scanFields(event).get(1);
+        assertEquals(PacketField.Encoding.UNSIGNED_BYTE, type.getEncoding());
+        assertEquals(1, type.getInt());
+        type.setByte(200);
+        assertEquals(200, type.getInt());
+        assertEquals(200L, type.getLong());
+        assertThrows(IllegalStateException.class, () -> type.setShort(0));
+    }
+}
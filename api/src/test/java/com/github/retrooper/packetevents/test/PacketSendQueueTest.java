@@ -0,0 +1,184 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.PacketSendQueue;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityHeadLook;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketSendQueueTest extends BaseDummyAPITest {
+
+    @BeforeEach
+    public void installTickHook() {
+        PacketSendQueue.setTickHook(true);
+    }
+
+    @AfterEach
+    public void removeTickHook() {
+        PacketSendQueue.setTickHook(false);
+    }
+
+    @Test
+    @DisplayName("Test draining a tick aligned queue")
+    public void testTickAligned() {
+        PacketEvents.getAPI().getSettings().sendQueueTickAligned(true).sendQueueDrainThreshold(4);
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter);
+        User user = createUser(channel, ConnectionState.PLAY);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(user.queuePacket(new WrapperPlayServerKeepAlive(i)));
+        }
+        assertEquals(3, user.getSendQueue().getDepth());
+        assertEquals(0, counter.flushes);
+
+        user.flushSendQueue();
+        assertEquals(0, user.getSendQueue().getDepth());
+        assertEquals(1, counter.flushes);
+        assertEquals(3, channel.outboundMessages().size());
+
+        // reaching the threshold drains the queue before the next tick
+        for (int i = 0; i < 4; i++) {
+            user.queuePacket(new WrapperPlayServerKeepAlive(i));
+        }
+        assertEquals(0, user.getSendQueue().getDepth());
+        assertEquals(2, counter.flushes);
+        assertEquals(4, user.getSendQueue().getMaxDepth());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Test ignoring tick alignment on platforms without ticks")
+    public void testWithoutTickHook() {
+        PacketSendQueue.setTickHook(false);
+        PacketEvents.getAPI().getSettings().sendQueueTickAligned(true).sendQueueDrainThreshold(64);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        User user = createUser(channel, ConnectionState.PLAY);
+
+        assertFalse(PacketSendQueue.isTickAligned());
+        assertTrue(user.queuePacket(new WrapperPlayServerKeepAlive(1)));
+        assertEquals(0, user.getSendQueue().getDepth());
+        assertEquals(1, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Test dropping a packet which fails to encode")
+    public void testEncodeFailure() {
+        PacketEvents.getAPI().getSettings().sendQueueTickAligned(true).sendQueueDrainThreshold(64);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        User user = createUser(channel, ConnectionState.PLAY);
+        PacketSendQueue queue = user.getSendQueue();
+
+        queue.enqueue(new WrapperPlayServerKeepAlive(1));
+        queue.enqueue(new WrapperPlayServerKeepAlive(2) {
+            @Override
+            public void write() {
+                throw new IllegalStateException();
+            }
+        });
+        queue.enqueue(new WrapperPlayServerKeepAlive(3));
+        assertThrows(IllegalStateException.class, queue::flush);
+        // the packet before the failure is still flushed, the one after it waits for the next tick
+        assertEquals(1, channel.outboundMessages().size());
+        assertEquals(1, queue.getDepth());
+
+        queue.flush();
+        assertEquals(0, queue.getDepth());
+        assertEquals(2, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Test dropping packets while the channel is not writable")
+    public void testDrop() {
+        PacketEvents.getAPI().getSettings().sendQueueTickAligned(true)
+                .sendQueueBackPressure(PacketSendQueue.BackPressure.DROP);
+        EmbeddedChannel channel = createUnwritableChannel();
+        User user = createUser(channel, ConnectionState.PLAY);
+
+        assertFalse(user.queuePacket(new WrapperPlayServerKeepAlive(1)));
+        assertEquals(0, user.getSendQueue().getDepth());
+        assertEquals(1, user.getSendQueue().getDroppedPackets());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Test coalescing packets while the channel is not writable")
+    public void testCoalesce() {
+        PacketEvents.getAPI().getSettings().sendQueueTickAligned(true)
+                .sendQueueBackPressure(PacketSendQueue.BackPressure.COALESCE);
+        EmbeddedChannel channel = createUnwritableChannel();
+        User user = createUser(channel, ConnectionState.PLAY);
+        PacketSendQueue queue = user.getSendQueue();
+
+        assertTrue(queue.enqueue(new WrapperPlayServerEntityHeadLook(1, 0f), 1));
+        assertTrue(queue.enqueue(new WrapperPlayServerEntityHeadLook(1, 90f), 1));
+        assertTrue(queue.enqueue(new WrapperPlayServerEntityHeadLook(2, 0f), 2));
+        // packets without a key are never coalesced
+        assertTrue(queue.enqueue(new WrapperPlayServerKeepAlive(1)));
+        assertTrue(queue.enqueue(new WrapperPlayServerKeepAlive(1)));
+        assertEquals(4, queue.getDepth());
+        assertEquals(1, queue.getCoalescedPackets());
+
+        queue.flush();
+        assertEquals(0, queue.getDepth());
+        // the buffer making the channel unwritable, and the four queued packets
+        assertEquals(5, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+    }
+
+    private static EmbeddedChannel createUnwritableChannel() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1, 2));
+        channel.write(Unpooled.buffer().writeZero(16));
+        assertFalse(channel.isWritable());
+        return channel;
+    }
+
+    private static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+        private int flushes;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            flushes++;
+            super.flush(ctx);
+        }
+    }
+}
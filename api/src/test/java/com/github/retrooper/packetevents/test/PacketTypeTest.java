@@ -0,0 +1,62 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PacketTypeTest {
+
+    @Test
+    @DisplayName("Test packet type id resolution round trip")
+    public void testPacketTypeIdRoundTrip() {
+        PacketType.prepare();
+        for (ClientVersion version : ClientVersion.values()) {
+            if (!version.isRelease()) {
+                continue;
+            }
+            assertRoundTrip(PacketType.Play.Server.values(), PacketSide.SERVER, ConnectionState.PLAY, version);
+            assertRoundTrip(PacketType.Play.Client.values(), PacketSide.CLIENT, ConnectionState.PLAY, version);
+            if (version.isNewerThanOrEquals(ClientVersion.V_1_20_2)) {
+                assertRoundTrip(PacketType.Configuration.Server.values(), PacketSide.SERVER, ConnectionState.CONFIGURATION, version);
+                assertRoundTrip(PacketType.Configuration.Client.values(), PacketSide.CLIENT, ConnectionState.CONFIGURATION, version);
+            }
+            assertNull(PacketType.getById(PacketSide.SERVER, ConnectionState.PLAY, version, -1));
+            assertNull(PacketType.getById(PacketSide.SERVER, ConnectionState.PLAY, version, Integer.MAX_VALUE));
+        }
+    }
+
+    private static void assertRoundTrip(PacketTypeCommon[] packetTypes, PacketSide side,
+                                        ConnectionState state, ClientVersion version) {
+        for (PacketTypeCommon packetType : packetTypes) {
+            int id = packetType.getId(version);
+            if (id != -1) {
+                assertEquals(packetType, PacketType.getById(side, state, version, id));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.simple.PacketPlayReceiveEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerFlying;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketWrapperReuseTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test reading several packets into one wrapper")
+    public void testReadInto() throws PacketProcessException {
+        User user = createUser(null, ConnectionState.PLAY);
+        WrapperPlayClientPlayerFlying wrapper = new WrapperPlayClientPlayerFlying(
+                false, false, false, new Location(0, 0, 0, 0, 0));
+
+        PacketReceiveEvent position = createEvent(user, new WrapperPlayClientPlayerFlying(
+                true, false, true, new Location(1, 2, 3, 0, 0)));
+        assertSame(wrapper, position.readInto(wrapper));
+        assertSame(wrapper, position.getLastUsedWrapper());
+        assertTrue(wrapper.hasPositionChanged());
+        assertFalse(wrapper.hasRotationChanged());
+        assertTrue(wrapper.isOnGround());
+        assertEquals(3, wrapper.getZ());
+        assertEquals(2, wrapper.getLocation().getY());
+
+        PacketReceiveEvent rotation = createEvent(user, new WrapperPlayClientPlayerFlying(
+                false, true, false, new Location(0, 0, 0, 90, 45)));
+        rotation.readInto(wrapper);
+        assertFalse(wrapper.hasPositionChanged());
+        assertTrue(wrapper.hasRotationChanged());
+        assertFalse(wrapper.isOnGround());
+        assertEquals(90, wrapper.getLocation().getYaw());
+
+        // a second listener copies the decoded state instead of reading again
+        WrapperPlayClientPlayerFlying other = new WrapperPlayClientPlayerFlying(rotation);
+        assertEquals(45, other.getLocation().getPitch());
+        assertSame(other, rotation.getLastUsedWrapper());
+    }
+
+    private static PacketReceiveEvent createEvent(User user, PacketWrapper<?> wrapper) throws PacketProcessException {
+        return new PacketPlayReceiveEvent(null, user, null, encode(wrapper), true);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.PipelinePlacement;
+import com.github.retrooper.packetevents.wrapper.login.server.WrapperLoginServerLoginSuccess;
+import com.github.retrooper.packetevents.wrapper.login.server.WrapperLoginServerSetCompression;
+import io.github.retrooper.packetevents.impl.netty.channel.CompressionPlacement;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelinePlacementTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test detecting the compression packet")
+    public void testCompressionPacket() {
+        User user = createUser(null, ConnectionState.LOGIN);
+        ByteBuf compression = encode(new WrapperLoginServerSetCompression(256));
+        assertTrue(PipelinePlacement.isCompressionPacket(user, compression, false));
+        assertEquals(0, compression.readerIndex());
+
+        ByteBuf loginSuccess = encode(new WrapperLoginServerLoginSuccess(user.getProfile()));
+        assertFalse(PipelinePlacement.isCompressionPacket(user, loginSuccess, false));
+
+        user.setEncoderState(ConnectionState.PLAY);
+        assertFalse(PipelinePlacement.isCompressionPacket(user, compression, false));
+    }
+
+    @Test
+    @DisplayName("Test relocating handlers once the compressor is added")
+    public void testRelocation() {
+        PacketEvents.getAPI().load();
+        PipelinePlacement.resetMetrics();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        User user = createUser(channel, ConnectionState.LOGIN);
+        ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addLast("decoder", new ChannelDuplexHandler());
+        pipeline.addLast("encoder", new ChannelDuplexHandler());
+        pipeline.addBefore("decoder", PacketEvents.DECODER_NAME, new TestDecoder());
+        pipeline.addBefore("encoder", PacketEvents.ENCODER_NAME, new TestEncoder(user));
+
+        // like the server, add the compression handlers once the compression packet is written
+        channel.writeAndFlush(encode(new WrapperLoginServerSetCompression(256))).addListener(future -> {
+            pipeline.addBefore("decoder", "decompress", new ChannelDuplexHandler());
+            pipeline.addBefore("encoder", "compress", new ChannelDuplexHandler());
+        });
+        channel.runPendingTasks();
+
+        List<String> names = pipeline.names();
+        assertTrue(names.indexOf(PacketEvents.DECODER_NAME) > names.indexOf("decompress"));
+        assertTrue(names.indexOf(PacketEvents.ENCODER_NAME) > names.indexOf("compress"));
+        assertFalse(CompressionPlacement.isBehindCompressor(pipeline));
+        assertEquals(1, PipelinePlacement.getRelocations());
+
+        // the next packet doesn't take the decompress and recompress path
+        channel.writeAndFlush(encode(new WrapperLoginServerLoginSuccess(user.getProfile())));
+        assertEquals(0, PipelinePlacement.getRecompressedPackets());
+        assertEquals(2, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+        PipelinePlacement.resetMetrics();
+    }
+
+    @Test
+    @DisplayName("Test relocating handlers before queued writes")
+    public void testRelocationBeforeQueuedWrites() {
+        PacketEvents.getAPI().load();
+        PipelinePlacement.resetMetrics();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        User user = createUser(channel, ConnectionState.LOGIN);
+        ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addLast("decoder", new ChannelDuplexHandler());
+        pipeline.addLast("encoder", new ChannelDuplexHandler());
+        pipeline.addBefore("decoder", PacketEvents.DECODER_NAME, new TestDecoder());
+        pipeline.addBefore("encoder", PacketEvents.ENCODER_NAME, new TestEncoder(user));
+
+        // like a server sending from its main thread, both writes are queued on the event loop
+        // and its listener, which adds the compression handlers, is registered before the write
+        ChannelPromise promise = channel.newPromise().addListener(future -> {
+            pipeline.addBefore("decoder", "decompress", new ChannelDuplexHandler());
+            pipeline.addBefore("encoder", "compress", new ChannelDuplexHandler());
+        });
+        channel.eventLoop().execute(() ->
+                channel.writeAndFlush(encode(new WrapperLoginServerSetCompression(256)), promise));
+        channel.eventLoop().execute(() ->
+                channel.writeAndFlush(encode(new WrapperLoginServerLoginSuccess(user.getProfile()))));
+        channel.runPendingTasks();
+
+        assertFalse(CompressionPlacement.isBehindCompressor(pipeline));
+        assertEquals(1, PipelinePlacement.getRelocations());
+        assertEquals(0, PipelinePlacement.getRecompressedPackets());
+        assertEquals(2, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+        PipelinePlacement.resetMetrics();
+    }
+
+    @ChannelHandler.Sharable
+    private static final class TestDecoder extends ChannelInboundHandlerAdapter {
+    }
+
+    // handles the compression packet like the platform encoders
+    @ChannelHandler.Sharable
+    private static final class TestEncoder extends ChannelOutboundHandlerAdapter {
+
+        private final User user;
+
+        private TestEncoder(User user) {
+            this.user = user;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ByteBuf buffer = (ByteBuf) msg;
+            if (CompressionPlacement.isBehindCompressor(ctx.pipeline())) {
+                PipelinePlacement.recordRecompressedPacket();
+            }
+            if (PipelinePlacement.isCompressionPacket(user, buffer, false)) {
+                CompressionPlacement.checkAfterWrite(ctx.channel(), promise, () -> true,
+                        CompressionPlacement::relocateHandlers);
+            }
+            ctx.write(buffer, promise);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.biome.Biome;
+import com.github.retrooper.packetevents.protocol.world.biome.Biomes;
+import com.github.retrooper.packetevents.resources.ResourceLocation;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.SimpleRegistry;
+import com.github.retrooper.packetevents.util.mappings.SynchronizedRegistriesHandler;
+import com.github.retrooper.packetevents.util.mappings.SynchronizedRegistriesHandler.RegistryEntry;
+import com.github.retrooper.packetevents.wrapper.configuration.server.WrapperConfigServerRegistryData.RegistryElement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SynchronizedRegistriesTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test sharing synchronized registries with identical content")
+    public void testSharedRegistries() {
+        @SuppressWarnings("unchecked")
+        RegistryEntry<Biome> entry = (RegistryEntry<Biome>) SynchronizedRegistriesHandler
+                .getRegistryEntry(Biomes.getRegistry().getRegistryKey());
+        ClientVersion version = ClientVersion.V_1_21_4;
+        List<RegistryElement> elements = Arrays.asList(
+                new RegistryElement(new ResourceLocation("plains"), null),
+                new RegistryElement(new ResourceLocation("desert"), null));
+        List<RegistryElement> otherElements = Arrays.asList(
+                new RegistryElement(new ResourceLocation("desert"), null),
+                new RegistryElement(new ResourceLocation("plains"), null));
+
+        SimpleRegistry<Biome> first = entry.computeSyncedRegistry("first", elements, version);
+        SimpleRegistry<Biome> second = entry.computeSyncedRegistry("second", elements, version);
+        assertSame(first, second);
+        assertSame(first, entry.getOrCreateFromElements(elements, version));
+        assertNotSame(first, entry.computeSyncedRegistry("third", otherElements, version));
+
+        // still referenced by the second key
+        entry.releaseSyncedRegistry("first");
+        assertNull(entry.getSyncedRegistry("first"));
+        assertSame(second, entry.computeSyncedRegistry("first", elements, version));
+
+        entry.releaseSyncedRegistry("first");
+        entry.releaseSyncedRegistry("second");
+        assertNotSame(first, entry.getOrCreateFromElements(elements, version));
+        entry.releaseSyncedRegistry("third");
+    }
+
+    @Test
+    @DisplayName("Test releasing synchronized registries once no user is bound to them")
+    public void testReleaseUsers() {
+        ResourceLocation registryKey = Biomes.getRegistry().getRegistryKey();
+        RegistryEntry<?> entry = SynchronizedRegistriesHandler.getRegistryEntry(registryKey);
+        ClientVersion version = ClientVersion.V_1_21_4;
+        List<RegistryElement> elements = Arrays.asList(
+                new RegistryElement(new ResourceLocation("plains"), null));
+        User first = createUser(null, ConnectionState.CONFIGURATION, version, "First");
+        User second = createUser(null, ConnectionState.CONFIGURATION, version, "Second");
+
+        SynchronizedRegistriesHandler.handleRegistry(first, version, registryKey, elements, "backend");
+        SynchronizedRegistriesHandler.handleRegistry(second, version, registryKey, elements, "backend");
+        SynchronizedRegistriesHandler.releaseUser(first);
+        assertNotNull(entry.getSyncedRegistry("backend"));
+
+        // switching to another backend server unbinds the user from the previous one
+        SynchronizedRegistriesHandler.handleRegistry(second, version, registryKey, elements, "other");
+        assertNull(entry.getSyncedRegistry("backend"));
+        assertNotNull(entry.getSyncedRegistry("other"));
+
+        SynchronizedRegistriesHandler.releaseUser(second);
+        assertNull(entry.getSyncedRegistry("other"));
+    }
+}
@@ -4,10 +4,23 @@ import be.seeseemelk.mockbukkit.MockBukkit;
 import be.seeseemelk.mockbukkit.MockPlugin;
 import be.seeseemelk.mockbukkit.ServerMock;
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.simple.PacketPlaySendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.slf4j.Logger;
 
+import java.util.UUID;
+
 public abstract class BaseDummyAPITest {
 
     public static final Logger LOGGER = TestPacketEventsBuilder.LOGGER;
@@ -22,9 +35,62 @@ public abstract class BaseDummyAPITest {
         PacketEvents.setAPI(TestPacketEventsBuilder.build(plugin));
     }
 
+    protected MockPlugin getPlugin() {
+        return plugin;
+    }
+
     @AfterEach
     public void teardown() {
         MockBukkit.unmock();
         PacketEvents.setAPI(null);
     }
+
+    /**
+     * Creates a user on the latest version, the channel may be null if nothing is written to it.
+     */
+    protected static User createUser(Object channel, ConnectionState state) {
+        return createUser(channel, state, ClientVersion.getLatest());
+    }
+
+    protected static User createUser(Object channel, ConnectionState state, ClientVersion version) {
+        return createUser(channel, state, version, "Test");
+    }
+
+    protected static User createUser(Object channel, ConnectionState state, ClientVersion version, String name) {
+        return new User(channel, state, version, new UserProfile(UUID.randomUUID(), name));
+    }
+
+    /**
+     * Encodes a packet like it is sent, prefixed with its packet id.
+     */
+    protected static ByteBuf encode(PacketWrapper<?> wrapper) {
+        return encode(wrapper, wrapper.getNativePacketId());
+    }
+
+    protected static ByteBuf encode(PacketWrapper<?> wrapper, int packetId) {
+        ByteBuf buffer = Unpooled.buffer();
+        wrapper.buffer = buffer;
+        wrapper.writeVarInt(packetId);
+        wrapper.write();
+        return buffer;
+    }
+
+    protected static byte[] encodeToBytes(PacketWrapper<?> wrapper) {
+        return encodeToBytes(wrapper, wrapper.getNativePacketId());
+    }
+
+    protected static byte[] encodeToBytes(PacketWrapper<?> wrapper, int packetId) {
+        return ByteBufUtil.getBytes(encode(wrapper, packetId));
+    }
+
+    /**
+     * Creates the event of an outgoing play packet, as if it was sent to the user.
+     */
+    protected static PacketSendEvent createSendEvent(User user, ByteBuf buffer) throws PacketProcessException {
+        return new PacketPlaySendEvent(null, user, null, buffer, true);
+    }
+
+    protected static PacketSendEvent createSendEvent(User user, byte[] data) throws PacketProcessException {
+        return createSendEvent(user, Unpooled.wrappedBuffer(data));
+    }
 }
@@ -10,6 +10,7 @@ import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.NettyManager;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
@@ -52,6 +53,10 @@ public class TestPacketEventsBuilder {
     }
 
     public static PacketEventsAPI<Plugin> buildNoCache(Plugin plugin, PacketEventsSettings inSettings) {
+        return buildNoCache(plugin, inSettings, false);
+    }
+
+    public static PacketEventsAPI<Plugin> buildNoCache(Plugin plugin, PacketEventsSettings inSettings, boolean proxy) {
         return new PacketEventsAPI<Plugin>() {
             private final PacketEventsSettings settings = inSettings;
             private final ProtocolManager protocolManager = new ProtocolManagerAbstract() {
@@ -68,6 +73,28 @@ public class TestPacketEventsBuilder {
             };
 
             private final NettyManager nettyManager = new NettyManagerImpl();
+            private final ChannelInjector injector = new ChannelInjector() {
+                @Override
+                public void inject() {
+                }
+
+                @Override
+                public void uninject() {
+                }
+
+                @Override
+                public void updateUser(Object channel, User user) {
+                }
+
+                @Override
+                public void setPlayer(Object channel, Object player) {
+                }
+
+                @Override
+                public boolean isProxy() {
+                    return proxy;
+                }
+            };
             private final LogManager logManager = new LogManager() {
                 @Override
                 protected void log(Level level, @Nullable NamedTextColor color, String message) {
@@ -169,7 +196,7 @@ public class TestPacketEventsBuilder {
 
             @Override
             public ChannelInjector getInjector() {
-                return null;
+                return injector;
             }
 
             @Override
@@ -0,0 +1,45 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// the benchmarks reuse the dummy api of the api tests
+evaluationDependsOn(":api")
+
+// papermc repo needed for mockbukkit
+repositories {
+    mavenCentral()
+    maven("https://repo.papermc.io/repository/maven-public/")
+}
+
+java {
+    disableAutoTargetJvm()
+}
+
+dependencies {
+    jmh(project(":api"))
+    jmh(project(":api").the<SourceSetContainer>()["test"].output)
+    jmh(project(":netty-common"))
+    jmh(libs.netty)
+    jmh(libs.bundles.adventure)
+    jmh(project(":patch:adventure-text-serializer-gson"))
+    jmh(libs.adventure.text.serializer.legacy)
+    jmh(testlibs.mockbukkit)
+    jmh(testlibs.slf4j)
+}
+
+tasks {
+    withType<JavaCompile> {
+        options.encoding = Charsets.UTF_8.name()
+    }
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // Machine readable results, compared between runs to catch regressions in the hot path
+    resultFormat = "JSON"
+    resultsFile = project.layout.buildDirectory.file("results/jmh/results.json")
+}
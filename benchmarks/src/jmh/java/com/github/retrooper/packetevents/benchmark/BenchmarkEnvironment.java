@@ -0,0 +1,58 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.TestPacketEventsBuilder;
+import org.bukkit.plugin.Plugin;
+
+import java.util.UUID;
+
+/**
+ * Sets up the dummy packetevents API used by the api tests, so benchmarks can run the real packet pipeline.
+ */
+public final class BenchmarkEnvironment {
+
+    private BenchmarkEnvironment() {
+    }
+
+    public static void setup() {
+        if (!MockBukkit.isMocked()) {
+            MockBukkit.mock();
+        }
+        Plugin plugin = MockBukkit.createMockPlugin("packetevents");
+        PacketEvents.setAPI(TestPacketEventsBuilder.buildNoCache(plugin));
+        PacketEvents.getAPI().load();
+    }
+
+    public static void teardown() {
+        MockBukkit.unmock();
+        PacketEvents.setAPI(null);
+    }
+
+    public static User createUser() {
+        return new User(null, ConnectionState.PLAY, ClientVersion.getLatest(),
+                new UserProfile(UUID.randomUUID(), "benchmark"));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.simple.PacketPlaySendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a 384 blocks tall chunk column, with and without parallel section decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkDecodingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private User user;
+    private ByteBuf chunkData;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.setup();
+        PacketEvents.getAPI().getSettings()
+                .parallelChunkDecoding(this.parallel)
+                .parallelChunkDecodingThreshold(0);
+        this.user = BenchmarkEnvironment.createUser();
+        this.chunkData = WrapperBenchmark.encode(new WrapperPlayServerChunkData(
+                WrapperBenchmark.createColumn(), WrapperBenchmark.createLightData()));
+    }
+
+    @TearDown
+    public void teardown() {
+        BenchmarkEnvironment.teardown();
+    }
+
+    @Benchmark
+    public Column decode() throws PacketProcessException {
+        this.chunkData.readerIndex(0);
+        return new WrapperPlayServerChunkData(new PacketPlaySendEvent(
+                null, this.user, null, this.chunkData, true)).getColumn();
+    }
+}
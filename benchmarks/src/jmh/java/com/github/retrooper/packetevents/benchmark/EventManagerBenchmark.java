@@ -0,0 +1,100 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.simple.PacketPlaySendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches a packet event to a number of listeners.
+ * If listeners are filtered, all but one of them are registered for other packet types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventManagerBenchmark {
+
+    @Param({"1", "16", "64"})
+    public int listeners;
+
+    @Param({"false", "true"})
+    public boolean filtered;
+
+    private EventManager eventManager;
+    private PacketSendEvent event;
+    private int calls;
+
+    @Setup
+    public void setup() throws PacketProcessException {
+        BenchmarkEnvironment.setup();
+        this.eventManager = new EventManager();
+        for (int i = 0; i < this.listeners; i++) {
+            if (this.filtered && i != 0) {
+                this.eventManager.registerListener(new CountingListener(PacketType.Play.Server.SPAWN_ENTITY));
+            } else {
+                this.eventManager.registerListener(new CountingListener());
+            }
+        }
+
+        ByteBuf buffer = WrapperBenchmark.encode(new WrapperPlayServerEntityRelativeMove(
+                42, 0.5D, -0.25D, 1D, true));
+        this.event = new PacketPlaySendEvent(null, BenchmarkEnvironment.createUser(), null, buffer, true);
+    }
+
+    @TearDown
+    public void teardown() {
+        BenchmarkEnvironment.teardown();
+    }
+
+    @Benchmark
+    public int callEvent() {
+        this.eventManager.callEvent(this.event);
+        return this.calls;
+    }
+
+    private final class CountingListener extends PacketListenerAbstract {
+
+        CountingListener(PacketType.Play.Server... packetTypes) {
+            super(PacketListenerPriority.NORMAL, packetTypes);
+        }
+
+        @Override
+        public void onPacketSend(PacketSendEvent event) {
+            calls++;
+        }
+    }
+}
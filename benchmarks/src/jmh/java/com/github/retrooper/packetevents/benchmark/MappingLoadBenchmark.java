@@ -0,0 +1,67 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a mapping file as done on startup, either by replaying the compressed diffs
+ * or from the id snapshot generated at build time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingLoadBenchmark {
+
+    @Param({"item/item_type_mappings", "sound/sound_mappings"})
+    public String path;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.setup();
+    }
+
+    @TearDown
+    public void teardown() {
+        BenchmarkEnvironment.teardown();
+    }
+
+    @Benchmark
+    public int load() {
+        TypesBuilder builder = new TypesBuilder(this.path, true);
+        if (!this.snapshot || !builder.loadFromSnapshot()) {
+            builder.loadFromNbt();
+        }
+        return builder.define("stone").getData().length;
+    }
+}
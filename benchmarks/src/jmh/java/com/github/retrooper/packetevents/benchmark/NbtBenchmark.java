@@ -0,0 +1,145 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes an item-like compound tag, directly on the buffer
+ * and through the stream based {@link DefaultNBTSerializer} for comparison,
+ * with and without sharing compound key names and decoding compounds lazily.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NbtBenchmark {
+
+    private static final ServerVersion VERSION = ServerVersion.getLatest();
+
+    @Param({"false", "true"})
+    public boolean interning;
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    private NBTCompound compound;
+    private ByteBuf input;
+    private ByteBuf output;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.setup();
+        PacketEvents.getAPI().getSettings()
+                .nbtNameInterning(this.interning)
+                .lazyNBTDecoding(this.lazy);
+        this.compound = createItemCompound();
+        this.input = Unpooled.buffer();
+        NBTCodec.writeNBTToBuffer(this.input, VERSION, this.compound);
+        this.output = Unpooled.buffer();
+    }
+
+    @TearDown
+    public void teardown() {
+        BenchmarkEnvironment.teardown();
+    }
+
+    @Benchmark
+    public NBT read() {
+        return NBTCodec.readNBTFromBuffer(this.input.resetReaderIndex(), VERSION);
+    }
+
+    @Benchmark
+    public NBT readSingleTag() {
+        NBTCompound compound = (NBTCompound) NBTCodec.readNBTFromBuffer(this.input.resetReaderIndex(), VERSION);
+        return compound.getTagOrNull("Damage");
+    }
+
+    @Benchmark
+    public int write() {
+        this.output.clear();
+        NBTCodec.writeNBTToBuffer(this.output, VERSION, this.compound);
+        return this.output.writerIndex();
+    }
+
+    @Benchmark
+    public NBT readStream() throws IOException {
+        this.input.resetReaderIndex();
+        return DefaultNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.noop(),
+                new ByteBufInputStream(this.input), false);
+    }
+
+    @Benchmark
+    public int writeStream() throws IOException {
+        this.output.clear();
+        DefaultNBTSerializer.INSTANCE.serializeTag(new ByteBufOutputStream(this.output), this.compound, false);
+        return this.output.writerIndex();
+    }
+
+    static NBTCompound createItemCompound() {
+        NBTList<NBTCompound> enchantments = NBTList.createCompoundList();
+        for (String id : new String[]{"minecraft:sharpness", "minecraft:unbreaking", "minecraft:mending"}) {
+            NBTCompound enchantment = new NBTCompound();
+            enchantment.setTag("id", new NBTString(id));
+            enchantment.setTag("lvl", new NBTShort((short) 3));
+            enchantments.addTag(enchantment);
+        }
+
+        NBTList<NBTString> lore = NBTList.createStringList();
+        for (int i = 0; i < 4; i++) {
+            lore.addTag(new NBTString("{\"text\":\"Line " + i + "\",\"italic\":false}"));
+        }
+        NBTCompound display = new NBTCompound();
+        display.setTag("Name", new NBTString("{\"text\":\"Benchmark Sword\",\"color\":\"gold\"}"));
+        display.setTag("Lore", lore);
+
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("Damage", new NBTInt(12));
+        compound.setTag("Unbreakable", new NBTByte((byte) 1));
+        compound.setTag("Enchantments", enchantments);
+        compound.setTag("display", display);
+        return compound;
+    }
+}
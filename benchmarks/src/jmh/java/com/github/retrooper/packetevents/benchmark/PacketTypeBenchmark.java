@@ -0,0 +1,121 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the array-backed {@link PacketType.Play.Server#getById(ClientVersion, int)}
+ * against the boxed map lookup with a linear version scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PacketTypeBenchmark {
+
+    private static final ClientVersion[] LEGACY_VERSIONS = {
+            ClientVersion.V_1_8,
+            ClientVersion.V_1_12_2,
+            ClientVersion.V_1_16_4,
+            ClientVersion.V_1_20_5,
+            ClientVersion.V_1_21_2,
+    };
+
+    @Param({"V_1_8", "V_1_21_2"})
+    public String version;
+
+    private ClientVersion clientVersion;
+    private int[] packetIds;
+    private Map<Byte, Map<Integer, PacketTypeCommon>> legacyMap;
+
+    @Setup
+    public void setup() {
+        PacketType.prepare();
+        this.clientVersion = ClientVersion.valueOf(this.version);
+
+        this.legacyMap = new HashMap<>();
+        for (int i = 0; i < LEGACY_VERSIONS.length; i++) {
+            Map<Integer, PacketTypeCommon> packetIdMap = new HashMap<>();
+            for (PacketType.Play.Server packetType : PacketType.Play.Server.values()) {
+                int id = packetType.getId(LEGACY_VERSIONS[i]);
+                if (id != -1) {
+                    packetIdMap.put(id, packetType);
+                }
+            }
+            this.legacyMap.put((byte) i, packetIdMap);
+        }
+
+        // The packets a server sends most frequently
+        PacketType.Play.Server[] hotPackets = {
+                PacketType.Play.Server.ENTITY_RELATIVE_MOVE,
+                PacketType.Play.Server.ENTITY_HEAD_LOOK,
+                PacketType.Play.Server.ENTITY_VELOCITY,
+                PacketType.Play.Server.ENTITY_METADATA,
+                PacketType.Play.Server.CHUNK_DATA,
+                PacketType.Play.Server.KEEP_ALIVE,
+        };
+        this.packetIds = new int[hotPackets.length];
+        for (int i = 0; i < hotPackets.length; i++) {
+            this.packetIds[i] = hotPackets[i].getId(this.clientVersion);
+        }
+    }
+
+    @Benchmark
+    public PacketTypeCommon getById() {
+        PacketTypeCommon last = null;
+        for (int packetId : this.packetIds) {
+            last = PacketType.Play.Server.getById(this.clientVersion, packetId);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public PacketTypeCommon legacyMapLookup() {
+        PacketTypeCommon last = null;
+        for (int packetId : this.packetIds) {
+            int index = legacyIndex(this.clientVersion);
+            last = this.legacyMap.get((byte) index).get(packetId);
+        }
+        return last;
+    }
+
+    // The linear version scan of the previous VersionMapper#getIndex
+    private static int legacyIndex(ClientVersion version) {
+        for (int i = LEGACY_VERSIONS.length - 1; i >= 0; i--) {
+            if (version.isNewerThanOrEquals(LEGACY_VERSIONS[i])) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards a clientbound packet the way the proxy handlers do, with a listener for its packet type.
+ * Compares copying the packet into a new buffer and back out again with processing it in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProxyForwardingBenchmark {
+
+    @Param({"entity_relative_move", "chunk_data"})
+    public String packet;
+
+    @Param({"false", "true"})
+    public boolean reEncode;
+
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+    private User user;
+    private ByteBuf buffer;
+    private PacketListenerCommon listener;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.setup();
+        this.user = BenchmarkEnvironment.createUser();
+
+        PacketType.Play.Server packetType;
+        if ("chunk_data".equals(this.packet)) {
+            packetType = PacketType.Play.Server.CHUNK_DATA;
+            this.buffer = WrapperBenchmark.encode(new WrapperPlayServerChunkData(WrapperBenchmark.createColumn(),
+                    WrapperBenchmark.createLightData()));
+        } else {
+            packetType = PacketType.Play.Server.ENTITY_RELATIVE_MOVE;
+            this.buffer = WrapperBenchmark.encode(new WrapperPlayServerEntityRelativeMove(
+                    42, 0.5D, -0.25D, 1D, true));
+        }
+        this.listener = PacketEvents.getAPI().getEventManager().registerListener(
+                new ForwardingListener(packetType, this.reEncode));
+    }
+
+    @TearDown
+    public void teardown() {
+        PacketEvents.getAPI().getEventManager().unregisterListener(this.listener);
+        this.buffer.release();
+        BenchmarkEnvironment.teardown();
+    }
+
+    /**
+     * The previous handler, which copied the packet before dispatching it and copied the result again.
+     */
+    @Benchmark
+    public int copying() throws Exception {
+        ByteBuf transformed = this.allocator.buffer().writeBytes(this.buffer, this.buffer.readerIndex(),
+                this.buffer.readableBytes());
+        try {
+            PacketEventsImplHelper.handleClientBoundPacket(null, this.user, null, transformed, false);
+            ByteBuf out = this.allocator.buffer().writeBytes(transformed);
+            int size = out.readableBytes();
+            out.release();
+            return size;
+        } finally {
+            transformed.release();
+        }
+    }
+
+    @Benchmark
+    public int inPlace() throws Exception {
+        Object transformed = PacketEventsImplHelper.handleForwardedPacket(null, this.user, null,
+                this.buffer, PacketSide.SERVER, this.allocator::buffer);
+        if (transformed == null) {
+            return 0;
+        }
+        ByteBuf out = (ByteBuf) transformed;
+        int size = out.readableBytes();
+        if (out != this.buffer) {
+            out.release();
+        }
+        return size;
+    }
+
+    private static final class ForwardingListener extends PacketListenerAbstract {
+
+        private final boolean reEncode;
+
+        ForwardingListener(PacketType.Play.Server packetType, boolean reEncode) {
+            super(PacketListenerPriority.NORMAL, packetType);
+            this.reEncode = reEncode;
+        }
+
+        @Override
+        public void onPacketSend(PacketSendEvent event) {
+            if (this.reEncode) {
+                if (event.getPacketType() == PacketType.Play.Server.CHUNK_DATA) {
+                    new WrapperPlayServerChunkData(event);
+                } else {
+                    new WrapperPlayServerEntityRelativeMove(event);
+                }
+                event.markForReEncode(true);
+            }
+        }
+    }
+}
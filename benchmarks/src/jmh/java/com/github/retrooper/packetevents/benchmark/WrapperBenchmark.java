@@ -0,0 +1,172 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.simple.PacketPlayReceiveEvent;
+import com.github.retrooper.packetevents.event.simple.PacketPlaySendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.LightData;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerFlying;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the hottest packets through a packet event, the same way listeners do, and encodes them again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrapperBenchmark {
+
+    private User user;
+    private ByteBuf output;
+    private ByteBuf entityRelativeMove;
+    private ByteBuf entityMetadata;
+    private ByteBuf chunkData;
+    private ByteBuf playerFlying;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.setup();
+        this.user = BenchmarkEnvironment.createUser();
+        this.output = Unpooled.buffer();
+
+        this.entityRelativeMove = encode(new WrapperPlayServerEntityRelativeMove(
+                42, 0.5D, -0.25D, 1D, true));
+        this.entityMetadata = encode(new WrapperPlayServerEntityMetadata(42, Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x20),
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(4, EntityDataTypes.BOOLEAN, false),
+                new EntityData(5, EntityDataTypes.BOOLEAN, true),
+                new EntityData(9, EntityDataTypes.FLOAT, 20F))));
+        this.chunkData = encode(new WrapperPlayServerChunkData(createColumn(), createLightData()));
+        this.playerFlying = encode(new WrapperPlayClientPlayerFlying(true, true, true,
+                new Location(128.5D, 64D, -32.25D, 90F, 15F)));
+    }
+
+    @TearDown
+    public void teardown() {
+        BenchmarkEnvironment.teardown();
+    }
+
+    @Benchmark
+    public Object entityRelativeMove() throws PacketProcessException {
+        return reEncode(new WrapperPlayServerEntityRelativeMove(sendEvent(this.entityRelativeMove)));
+    }
+
+    @Benchmark
+    public Object entityMetadata() throws PacketProcessException {
+        return reEncode(new WrapperPlayServerEntityMetadata(sendEvent(this.entityMetadata)));
+    }
+
+    @Benchmark
+    public Object chunkData() throws PacketProcessException {
+        return reEncode(new WrapperPlayServerChunkData(sendEvent(this.chunkData)));
+    }
+
+    @Benchmark
+    public Object chunkDataColumn() throws PacketProcessException {
+        WrapperPlayServerChunkData wrapper = new WrapperPlayServerChunkData(sendEvent(this.chunkData));
+        wrapper.getColumn();
+        return reEncode(wrapper);
+    }
+
+    @Benchmark
+    public Object playerFlying() throws PacketProcessException {
+        return reEncode(new WrapperPlayClientPlayerFlying(receiveEvent(this.playerFlying)));
+    }
+
+    private PacketSendEvent sendEvent(ByteBuf buffer) throws PacketProcessException {
+        buffer.readerIndex(0);
+        return new PacketPlaySendEvent(null, this.user, null, buffer, true);
+    }
+
+    private PacketReceiveEvent receiveEvent(ByteBuf buffer) throws PacketProcessException {
+        buffer.readerIndex(0);
+        return new PacketPlayReceiveEvent(null, this.user, null, buffer, true);
+    }
+
+    private Object reEncode(PacketWrapper<?> wrapper) {
+        this.output.clear();
+        wrapper.buffer = this.output;
+        wrapper.write();
+        return wrapper;
+    }
+
+    static ByteBuf encode(PacketWrapper<?> wrapper) {
+        ByteBuf buffer = Unpooled.buffer();
+        wrapper.buffer = buffer;
+        wrapper.writeVarInt(wrapper.getNativePacketId());
+        wrapper.write();
+        return buffer;
+    }
+
+    // A 384 blocks tall overworld column, with a few different block states per section
+    static Column createColumn() {
+        Random random = new Random(0L);
+        BaseChunk[] chunks = new BaseChunk[24];
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            if (i < 12) {
+                for (int x = 0; x < 16; x++) {
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            chunk.set(x, y, z, 1 + random.nextInt(12));
+                        }
+                    }
+                }
+            }
+            chunks[i] = chunk;
+        }
+        return new Column(0, 0, true, chunks, new TileEntity[0], new NBTCompound());
+    }
+
+    static LightData createLightData() {
+        return new LightData(true, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                0, 0, new byte[0][], new byte[0][]);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.retrooper.compression
+
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.*
+import kotlin.io.path.createDirectories
+
+/**
+ * Writes the id tables of all versions as a flat snapshot, read by TypesBuilder without replaying diffs.
+ *
+ * Format, big endian:
+ * - int magic, byte format version
+ * - byte version count, followed by the version names
+ * - int name count, followed by the names in ascending order
+ * - for every name, the id in every version or -1 if it doesn't exist in that version
+ */
+object IdSnapshotWriter {
+
+    const val MAGIC = 0x50454944 // PEID
+    const val FORMAT_VERSION = 1
+
+    fun write(path: Path, tables: SortedMap<EntryVersion, Map<String, Int>>) {
+        val names = tables.values.flatMapTo(TreeSet()) { it.keys }
+        path.parent.createDirectories()
+        DataOutputStream(BufferedOutputStream(Files.newOutputStream(path))).use { out ->
+            out.writeInt(MAGIC)
+            out.writeByte(FORMAT_VERSION)
+            out.writeByte(tables.size)
+            for (version in tables.keys) {
+                out.writeUTF(version.toString())
+            }
+            out.writeInt(names.size)
+            for (name in names) {
+                out.writeUTF(name)
+            }
+            for (name in names) {
+                for (table in tables.values) {
+                    out.writeInt(table[name] ?: -1)
+                }
+            }
+        }
+    }
+
+}
@@ -31,6 +31,7 @@ abstract class MappingCompressionExtension {
     internal val strategies: MutableMap<String, CompressionStrategy> = linkedMapOf()
     abstract val mappingDirectory: DirectoryProperty
     abstract val outDirectory: DirectoryProperty
+    abstract val snapshotDirectory: DirectoryProperty
 
     fun with(strategy: KClass<out CompressionStrategy>, action: Action<StrategySpec>) {
         action.execute(StrategySpec(this, strategy))
@@ -40,11 +40,23 @@ class MappingCompressionPlugin : Plugin<Project> {
             }
         }
 
+        val snapshotTask = target.tasks.create<MappingSnapshotTask>(MappingSnapshotTask.TASK_NAME) {
+            group = target.rootProject.name
+        }
+
         target.afterEvaluate {
             task.inputs.dir(ext.mappingDirectory)
             task.mappingsDir = ext.mappingDirectory.get().asFile.toPath()
             task.outDir = ext.outDirectory.get().asFile.toPath()
             task.strategies = ext.strategies
+
+            if (ext.snapshotDirectory.isPresent) {
+                snapshotTask.inputs.dir(ext.mappingDirectory)
+                snapshotTask.outputs.dir(ext.snapshotDirectory)
+                snapshotTask.mappingsDir = ext.mappingDirectory.get().asFile.toPath()
+                snapshotTask.outDir = ext.snapshotDirectory.get().asFile.toPath()
+                snapshotTask.strategies = ext.strategies
+            }
         }
     }
 
@@ -22,6 +22,7 @@ import com.github.difflib.algorithm.myers.MeyersDiff
 import com.github.difflib.patch.ChangeDelta
 import com.github.difflib.patch.DeleteDelta
 import com.github.difflib.patch.InsertDelta
+import com.github.retrooper.compression.EntryVersion
 import com.github.retrooper.compression.asStringList
 import com.github.steveice10.opennbt.tag.builtin.ByteTag
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag
@@ -29,8 +30,17 @@ import com.github.steveice10.opennbt.tag.builtin.IntTag
 import com.github.steveice10.opennbt.tag.builtin.ListTag
 import com.github.steveice10.opennbt.tag.builtin.StringTag
 import com.google.gson.JsonObject
+import java.util.*
 
-object JsonArrayCompressionStrategy : JsonCompressionStrategy() {
+object JsonArrayCompressionStrategy : JsonCompressionStrategy(), IdMappingStrategy {
+
+    override fun createIdTables(json: JsonObject): SortedMap<EntryVersion, Map<String, Int>> {
+        return separateVersions(json).mapValuesTo(TreeMap()) { (_, value) ->
+            val table = HashMap<String, Int>()
+            value.asJsonArray.asStringList.forEachIndexed { id, name -> table[name] = id }
+            table
+        }
+    }
 
     override fun serialize(tag: CompoundTag, json: JsonObject) {
         val entries = separateVersions(json)
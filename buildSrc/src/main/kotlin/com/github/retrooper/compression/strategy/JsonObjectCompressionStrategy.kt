@@ -22,12 +22,22 @@ import com.github.difflib.algorithm.myers.MeyersDiff
 import com.github.difflib.patch.ChangeDelta
 import com.github.difflib.patch.DeleteDelta
 import com.github.difflib.patch.InsertDelta
+import com.github.retrooper.compression.EntryVersion
 import com.github.retrooper.compression.asPrimitiveMap
 import com.github.steveice10.opennbt.tag.builtin.*
 import com.google.gson.JsonObject
 import com.google.gson.JsonPrimitive
+import java.util.*
 
-object JsonObjectCompressionStrategy : JsonCompressionStrategy() {
+object JsonObjectCompressionStrategy : JsonCompressionStrategy(), IdMappingStrategy {
+
+    override fun createIdTables(json: JsonObject): SortedMap<EntryVersion, Map<String, Int>> {
+        return separateVersions(json).mapValuesTo(TreeMap()) { (_, value) ->
+            value.asJsonObject.asPrimitiveMap
+                .filterValues { it.isNumber }
+                .mapValues { it.value.asInt }
+        }
+    }
 
     override fun serialize(tag: CompoundTag, json: JsonObject) {
         val entries = separateVersions(json)
@@ -19,10 +19,11 @@
 package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
-import com.github.retrooper.packetevents.event.PacketSendEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
-import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.util.PipelinePlacement;
+import io.github.retrooper.packetevents.impl.netty.channel.CompressionPlacement;
 import io.github.retrooper.packetevents.injector.CustomPipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -32,7 +33,6 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.EncoderException;
 import io.netty.util.Recycler;
-import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.PromiseCombiner;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 
@@ -61,31 +61,37 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
 
     public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) throws Exception {
         boolean doCompression = handleCompressionOrder(ctx, buffer);
-        int firstReaderIndex = buffer.readerIndex();
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
-                buffer, false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
-            } else {
-                buffer.readerIndex(firstReaderIndex);
-            }
-            if (doCompression) {
-                this.recompress(ctx, buffer, promise);
-            } else {
-                ctx.write(buffer, promise);
-            }
-        } else {
-            ReferenceCountUtil.release(packetSendEvent.getByteBuf());
+        if (!handledCompression && PipelinePlacement.isCompressionPacket(user, buffer, false)) {
+            CompressionPlacement.checkAfterWrite(ctx.channel(), promise, () -> {
+                if (handledCompression || ctx.pipeline().get(PacketEvents.ENCODER_NAME) != this) {
+                    return false;
+                }
+                // Either relocated now or already on the uncompressed side, no need to check every packet
+                handledCompression = true;
+                return true;
+            }, CompressionPlacement::relocateHandlers);
         }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
-            }
+        Object transformed;
+        try {
+            transformed = PacketEventsImplHelper.handleForwardedPacket(ctx.channel(), user, player,
+                    buffer, PacketSide.SERVER, ctx.alloc()::buffer);
+        } catch (Exception exception) {
+            buffer.release();
+            throw exception;
+        }
+        if (transformed == null) {
+            buffer.release();
+            return;
+        }
+        if (transformed != buffer) {
+            // A listener re-encoded the packet into a new buffer
+            buffer.release();
+        }
+        if (doCompression) {
+            PipelinePlacement.recordRecompressedPacket();
+            this.recompress(ctx, (ByteBuf) transformed, promise);
+        } else {
+            ctx.write(transformed, promise);
         }
     }
 
@@ -124,13 +130,7 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
                         decompressed.release();
                     }
                 }
-                //Relocate handlers
-                PacketEventsDecoder decoder = (PacketEventsDecoder) pipe.remove(PacketEvents.DECODER_NAME);
-                PacketEventsEncoder encoder = (PacketEventsEncoder) pipe.remove(PacketEvents.ENCODER_NAME);
-                pipe.addAfter("decompress", PacketEvents.DECODER_NAME, decoder);
-                pipe.addAfter("compress", PacketEvents.ENCODER_NAME, encoder);
-                //System.out.println("Pipe: " + ChannelHelper.pipelineHandlerNamesAsString(ctx.channel()));
-                handledCompression = true;
+                relocateHandlers(pipe);
                 return true;
             } catch (InvocationTargetException e) {
                 e.printStackTrace();
@@ -139,6 +139,11 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
         return false;
     }
 
+    private void relocateHandlers(ChannelPipeline pipe) {
+        CompressionPlacement.relocateHandlers(pipe);
+        handledCompression = true;
+    }
+
     private void recompress(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) {
         OutList outWrapper = OUT_LIST_RECYCLER.get();
         List<Object> out = outWrapper.list;
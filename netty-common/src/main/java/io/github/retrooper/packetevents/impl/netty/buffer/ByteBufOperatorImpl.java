@@ -21,6 +21,7 @@ package io.github.retrooper.packetevents.impl.netty.buffer;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
 import io.netty.buffer.ByteBuf;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 public class ByteBufOperatorImpl implements ByteBufOperator {
@@ -134,6 +135,11 @@ public class ByteBufOperatorImpl implements ByteBufOperator {
         return ((ByteBuf)buffer).getUnsignedByte(index);
     }
 
+    @Override
+    public Object setByte(Object buffer, int index, int value) {
+        return ((ByteBuf)buffer).setByte(index, value);
+    }
+
     @Override
     public boolean isReadable(Object buffer) {
         return ((ByteBuf)buffer).isReadable();
@@ -243,4 +249,9 @@ public class ByteBufOperatorImpl implements ByteBufOperator {
     public Object resetWriterIndex(Object buffer) {
         return ((ByteBuf)buffer).resetWriterIndex();
     }
+
+    @Override
+    public ByteBuffer nioBuffer(Object buffer, int index, int length) {
+        return ((ByteBuf)buffer).nioBuffer(index, length);
+    }
 }
@@ -110,6 +110,16 @@ public class ChannelOperatorImpl implements ChannelOperator {
         ((Channel) channel).eventLoop().execute(runnable);
     }
 
+    @Override
+    public boolean isInEventLoop(Object channel) {
+        return ((Channel) channel).eventLoop().inEventLoop();
+    }
+
+    @Override
+    public boolean isWritable(Object channel) {
+        return ((Channel) channel).isWritable();
+    }
+
     @Override
     public Object pooledByteBuf(Object channel) {
         return ((Channel) channel).alloc().buffer();
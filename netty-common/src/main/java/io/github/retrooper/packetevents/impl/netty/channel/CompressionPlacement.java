@@ -0,0 +1,97 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.impl.netty.channel;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.util.PipelinePlacement;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Moves the packetevents handlers to the uncompressed side of the pipeline once the server
+ * has added its compression handlers, shared by the platform encoders.
+ *
+ * @see PipelinePlacement
+ */
+public final class CompressionPlacement {
+
+    private CompressionPlacement() {
+    }
+
+    /**
+     * Checks the pipeline once the login compression packet has been written, as the server adds
+     * its compressor in a listener of that write. The check runs right in our listener, on the event loop,
+     * so write tasks already queued behind the compression packet find our handlers moved.
+     *
+     * @param channel    the channel the compression packet is written to
+     * @param promise    the promise of the write
+     * @param claim      returns false if the encoder handled compression in the meantime,
+     *                   otherwise marks it as handled
+     * @param relocation moves our handlers behind the compression handlers
+     */
+    public static void checkAfterWrite(Channel channel, ChannelPromise promise,
+                                       BooleanSupplier claim, Consumer<ChannelPipeline> relocation) {
+        promise.addListener(future -> {
+            if (channel.pipeline().get("compress") != null) {
+                relocate(channel.pipeline(), claim, relocation);
+            } else {
+                // The server registered its listener after ours, which happens when it writes from the event loop
+                channel.eventLoop().execute(() -> relocate(channel.pipeline(), claim, relocation));
+            }
+        });
+    }
+
+    private static void relocate(ChannelPipeline pipeline, BooleanSupplier claim, Consumer<ChannelPipeline> relocation) {
+        // Without a compressor there is nothing to do yet, the slow path catches later additions
+        if (pipeline.get("compress") == null || !claim.getAsBoolean()) {
+            return;
+        }
+        if (isBehindCompressor(pipeline)) {
+            relocation.accept(pipeline);
+        }
+    }
+
+    /**
+     * @return true if outgoing packets pass the compressor before reaching our encoder
+     */
+    public static boolean isBehindCompressor(ChannelPipeline pipeline) {
+        List<String> names = pipeline.names();
+        int compressIndex = names.indexOf("compress");
+        int peEncoderIndex = names.indexOf(PacketEvents.ENCODER_NAME);
+        return compressIndex != -1 && peEncoderIndex != -1 && compressIndex > peEncoderIndex;
+    }
+
+    /**
+     * Moves our decoder right after the decompressor and our encoder right after the compressor.
+     * Both handlers have to be sharable, as they are added to the pipeline again.
+     */
+    public static void relocateHandlers(ChannelPipeline pipeline) {
+        ChannelHandler decoder = pipeline.remove(PacketEvents.DECODER_NAME);
+        ChannelHandler encoder = pipeline.remove(PacketEvents.ENCODER_NAME);
+        pipeline.addAfter("decompress", PacketEvents.DECODER_NAME, decoder);
+        pipeline.addAfter("compress", PacketEvents.ENCODER_NAME, encoder);
+        PipelinePlacement.recordRelocation();
+    }
+}
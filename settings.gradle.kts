@@ -34,5 +34,7 @@ include("bungeecord")
 include("velocity")
 include("sponge")
 include("fabric")
+// Benchmarks
+include("benchmarks")
 // Patch modules
 include(":patch:adventure-text-serializer-gson")
@@ -22,6 +22,7 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.PacketEventsAPI;
 import com.github.retrooper.packetevents.injector.ChannelInjector;
 import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.protocol.PacketSendQueue;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.manager.server.ServerManager;
 import com.github.retrooper.packetevents.netty.NettyManager;
@@ -146,6 +147,12 @@ public class SpigotPacketEventsBuilder {
                     metrics.addCustomChart(new SimplePie("packetevents_version", () -> getVersion().toStringWithoutSnapshot()));
                     Bukkit.getPluginManager().registerEvents(new InternalBukkitListener(plugin), plugin);
 
+                    //Drain the send queues of all users once per tick, the tick alignment setting
+                    //is checked when packets are queued, so it can be changed at runtime
+                    FoliaScheduler.getGlobalRegionScheduler().runAtFixedRate(plugin,
+                            (o) -> getProtocolManager().flushSendQueues(), 1, 1);
+                    PacketSendQueue.setTickHook(true);
+
                     if (lateBind) {
                         //If late-bind is enabled, we still need to inject (after all plugins enabled).
                         Runnable lateBindTask = () -> {
@@ -214,6 +221,7 @@ public class SpigotPacketEventsBuilder {
             @Override
             public void terminate() {
                 if (initialized) {
+                    PacketSendQueue.setTickHook(false);
                     //Uninject the injector if needed(depends on the injector implementation)
                     injector.uninject();
                     for (User user : ProtocolManager.USERS.values()) {
@@ -26,6 +26,7 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
 import com.github.retrooper.packetevents.util.FakeChannelUtil;
 import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.util.PipelinePlacement;
 import io.github.retrooper.packetevents.injector.handlers.PacketEventsDecoder;
 import io.github.retrooper.packetevents.injector.handlers.PacketEventsEncoder;
 import io.netty.channel.Channel;
@@ -117,6 +118,9 @@ public class ServerConnectionInitializer {
             ctx.pipeline().addBefore(decoderName, PacketEvents.DECODER_NAME, decoder);
             String encoderName = ctx.pipeline().names().contains("outbound_config") ? "outbound_config" : "encoder";
             ctx.pipeline().addBefore(encoderName, PacketEvents.ENCODER_NAME, encoder);
+            if (decoder.hasBeenRelocated) {
+                PipelinePlacement.recordRelocation();
+            }
         } catch (NoSuchElementException ex) {
             String handlers = ChannelHelper.pipelineHandlerNamesAsString(ctx);
             throw new IllegalStateException("PacketEvents failed to add a decoder to the netty pipeline. Pipeline handlers: " + handlers, ex);
@@ -29,8 +29,10 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
 import com.github.retrooper.packetevents.util.ExceptionUtil;
 import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.util.PipelinePlacement;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDisconnect;
+import io.github.retrooper.packetevents.impl.netty.channel.CompressionPlacement;
 import io.github.retrooper.packetevents.injector.connection.ServerConnectionInitializer;
 import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
@@ -70,9 +72,14 @@ public class PacketEventsEncoder extends MessageToMessageEncoder<ByteBuf> {
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> list) throws Exception {
         boolean needsRecompression = !handledCompression && handleCompression(ctx, byteBuf);
+        if (!handledCompression && this.promise != null
+                && PipelinePlacement.isCompressionPacket(user, byteBuf, true)) {
+            relocateAfterCompression(ctx.channel(), this.promise);
+        }
         handleClientBoundPacket(ctx.channel(), user, player, byteBuf, this.promise);
 
         if (needsRecompression) {
+            PipelinePlacement.recordRecompressedPacket();
             compress(ctx, byteBuf);
         }
 
@@ -185,14 +192,32 @@ public class PacketEventsEncoder extends MessageToMessageEncoder<ByteBuf> {
         }
     }
 
+    /**
+     * The server adds its compressor once the compression packet has been written,
+     * so we move our handlers right after that, before the next packet reaches them compressed.
+     */
+    private void relocateAfterCompression(Channel channel, ChannelPromise promise) {
+        CompressionPlacement.checkAfterWrite(channel, promise, () -> {
+            ChannelHandler encoder = channel.pipeline().get(PacketEvents.ENCODER_NAME);
+            if (!(encoder instanceof PacketEventsEncoder) || ((PacketEventsEncoder) encoder).handledCompression) {
+                // A packet already took the slow path
+                return false;
+            }
+            ((PacketEventsEncoder) encoder).handledCompression = true;
+            return true;
+        }, pipeline -> {
+            PacketEventsDecoder decoder = (PacketEventsDecoder) pipeline.get(PacketEvents.DECODER_NAME);
+            if (decoder != null) {
+                ServerConnectionInitializer.relocateHandlers(channel, decoder, user);
+            }
+        });
+    }
+
     private boolean handleCompression(ChannelHandlerContext ctx, ByteBuf buffer) throws InvocationTargetException {
         if (handledCompression) return false;
-        int compressIndex = ctx.pipeline().names().indexOf("compress");
-        if (compressIndex == -1) return false;
+        if (!ctx.pipeline().names().contains("compress")) return false;
         handledCompression = true;
-        int peEncoderIndex = ctx.pipeline().names().indexOf(PacketEvents.ENCODER_NAME);
-        if (peEncoderIndex == -1) return false;
-        if (compressIndex > peEncoderIndex) {
+        if (CompressionPlacement.isBehindCompressor(ctx.pipeline())) {
             //We are ahead of the decompression handler (they are added dynamically) so let us relocate.
             //But first we need to compress the data and re-compress it after we do all our processing to avoid issues.
             decompress(ctx, buffer, buffer);
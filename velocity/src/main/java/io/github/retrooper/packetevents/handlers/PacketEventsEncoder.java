@@ -18,19 +18,20 @@
 
 package io.github.retrooper.packetevents.handlers;
 
-import com.github.retrooper.packetevents.PacketEvents;
-import com.github.retrooper.packetevents.event.PacketSendEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
-import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.velocitypowered.api.proxy.Player;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
 
 @ChannelHandler.Sharable
-public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
+public class PacketEventsEncoder extends MessageToMessageEncoder<ByteBuf> {
     public Player player;
     public User user;
 
@@ -38,40 +39,23 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         this.user = user;
     }
 
-    public void read(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
-        int firstReaderIndex = buffer.readerIndex();
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, buffer,
-                false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
-            }
-            buffer.readerIndex(firstReaderIndex);
+    public void read(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> output) throws Exception {
+        Object transformed = PacketEventsImplHelper.handleForwardedPacket(ctx.channel(), user, player,
+                buffer, PacketSide.SERVER, ctx.alloc()::buffer);
+        if (transformed == buffer) {
+            // Forward the original buffer, it is released by the encoder after this
+            output.add(buffer.retain());
+        } else if (transformed != null) {
+            output.add(transformed);
         } else {
-            ByteBufHelper.clear(packetSendEvent.getByteBuf());
-        }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
-            }
+            // The encoder has to produce a message, so cancelled packets are written as an empty buffer
+            output.add(Unpooled.EMPTY_BUFFER);
         }
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
-        if (!msg.isReadable()) return;
-
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(msg);
-        try {
-            read(ctx, transformed);
-            out.writeBytes(transformed);
-        } finally {
-            transformed.release();
-        }
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        read(ctx, msg, out);
     }
 
     @Override
@@ -79,4 +63,3 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         super.exceptionCaught(ctx, cause);
     }
 }
-